@@ -0,0 +1,70 @@
+package com.agilemorph.cli;
+
+import com.agilemorph.dto.ImportReportDto;
+import com.agilemorph.service.ProviderImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.runtime.Quarkus;
+import io.quarkus.runtime.QuarkusApplication;
+import io.quarkus.runtime.annotations.QuarkusMain;
+import jakarta.inject.Inject;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Runs the HTTP service, or with {@code import <file>...} imports roster files
+ * and exits: {@code java -jar quarkus-run.jar import roster.csv more.ndjson}.
+ * The format follows the extension (.csv, .ndjson/.jsonl, or .json for an
+ * array). Each file's report is printed as JSON; the exit code is 1 if any
+ * row was rejected.
+ */
+@QuarkusMain
+public class AgilemorphMain implements QuarkusApplication {
+
+    @Inject
+    ProviderImportService providerImportService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Override
+    public int run(String... args) throws Exception {
+        if (args.length == 0 || !"import".equals(args[0])) {
+            Quarkus.waitForExit();
+            return 0;
+        }
+        if (args.length == 1) {
+            System.err.println("Usage: import <roster.csv|roster.ndjson|roster.json>...");
+            return 2;
+        }
+
+        int exitCode = 0;
+        for (int i = 1; i < args.length; i++) {
+            Path file = Path.of(args[i]);
+            try (InputStream input = Files.newInputStream(file)) {
+                ImportReportDto report = providerImportService.importProviders(input, formatOf(file));
+                System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+                if (report.failed > 0) {
+                    exitCode = 1;
+                }
+            }
+        }
+        return exitCode;
+    }
+
+    private static ProviderImportService.Format formatOf(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return ProviderImportService.Format.CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return ProviderImportService.Format.NDJSON;
+        }
+        if (name.endsWith(".json")) {
+            return ProviderImportService.Format.JSON;
+        }
+        throw new IllegalArgumentException("Cannot tell the format of " + file + "; use .csv, .ndjson or .json");
+    }
+}
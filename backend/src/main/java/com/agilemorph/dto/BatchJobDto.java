@@ -0,0 +1,62 @@
+package com.agilemorph.dto;
+
+import com.agilemorph.model.BatchJob;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@RegisterForReflection
+public class BatchJobDto {
+
+    public Long id;
+    public BatchJob.JobType jobType;
+    public BatchJob.JobStatus status;
+    public Long total;
+    public long processed;
+    public long updated;
+    public long failed;
+    public Long checkpoint;
+    public Double percentComplete;
+    /** Average rows processed per second since the job started. */
+    public Double rowsPerSecond;
+    /** Estimated seconds left at the current rate, while the job runs. */
+    public Long etaSeconds;
+    public String error;
+    public LocalDateTime createdAt;
+    public LocalDateTime startedAt;
+    public LocalDateTime updatedAt;
+    public LocalDateTime finishedAt;
+
+    public static BatchJobDto from(BatchJob job) {
+        BatchJobDto dto = new BatchJobDto();
+        dto.id = job.id;
+        dto.jobType = job.jobType;
+        dto.status = job.status;
+        dto.total = job.total;
+        dto.processed = job.processed;
+        dto.updated = job.updated;
+        dto.failed = job.failed;
+        dto.checkpoint = job.checkpoint;
+        if (job.total != null && job.total > 0) {
+            dto.percentComplete = Math.min(100.0, job.processed * 100.0 / job.total);
+        } else if (job.status == BatchJob.JobStatus.COMPLETED) {
+            dto.percentComplete = 100.0;
+        }
+        if (job.startedAt != null) {
+            LocalDateTime end = job.finishedAt != null ? job.finishedAt : LocalDateTime.now();
+            long millis = Duration.between(job.startedAt, end).toMillis();
+            if (millis > 0) {
+                dto.rowsPerSecond = job.processed * 1000.0 / millis;
+            }
+        }
+        if (job.status.isActive() && job.total != null && dto.rowsPerSecond != null && dto.rowsPerSecond > 0) {
+            dto.etaSeconds = Math.round(Math.max(0, job.total - job.processed) / dto.rowsPerSecond);
+        }
+        dto.error = job.error;
+        dto.createdAt = job.createdAt;
+        dto.startedAt = job.startedAt;
+        dto.updatedAt = job.updatedAt;
+        dto.finishedAt = job.finishedAt;
+        return dto;
+    }
+}
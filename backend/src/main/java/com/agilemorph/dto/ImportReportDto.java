@@ -0,0 +1,33 @@
+package com.agilemorph.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.util.ArrayList;
+import java.util.List;
+
+@RegisterForReflection
+public class ImportReportDto {
+
+    public long totalRows;
+    public long imported;
+    public long failed;
+    public boolean errorsTruncated;
+    public List<RowError> errors = new ArrayList<>();
+
+    public static class RowError {
+        /** 1-based data row, not counting a CSV header. */
+        public long row;
+        public long line;
+        public String npi;
+        public String error;
+
+        public RowError() {
+        }
+
+        public RowError(long row, long line, String npi, String error) {
+            this.row = row;
+            this.line = line;
+            this.npi = npi;
+            this.error = error;
+        }
+    }
+}
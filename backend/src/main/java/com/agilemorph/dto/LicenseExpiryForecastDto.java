@@ -0,0 +1,29 @@
+package com.agilemorph.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How many licenses expire within each horizon, counted from {@code asOf}.
+ * Horizons are cumulative: a license expiring in 10 days is counted under
+ * 30, 60 and 90. Licenses already expired on {@code asOf} are not counted.
+ */
+@RegisterForReflection
+public class LicenseExpiryForecastDto {
+
+    public LocalDate asOf;
+    /** Horizons in days, ascending. */
+    public List<Integer> horizons;
+    /** Licenses expiring within each horizon, over all states and types. */
+    public Map<Integer, Long> totals;
+    /** One entry per state and license type with at least one license expiring within the longest horizon. */
+    public List<Bucket> buckets;
+
+    public static class Bucket {
+        public String state;
+        public String licenseType;
+        public Map<Integer, Long> expiringWithin;
+    }
+}
@@ -0,0 +1,122 @@
+package com.agilemorph.dto;
+
+import com.agilemorph.model.License;
+import org.kie.api.definition.type.Modifies;
+
+import java.time.LocalDate;
+
+/**
+ * Expiry thresholds that apply to one license, the fact the license policy
+ * decision table (rules/license-expiry-policy.drl.csv) writes to. Starts from the
+ * defaults below; table rows matching the license's state or type override
+ * them before the expiry rule reads them.
+ *
+ * Whether the license is expired or expiring soon is always computed from
+ * its expiry date, the evaluation's as-of date and this policy's window,
+ * never read from the flags on the DTO, which a submitted provider may not
+ * have set.
+ *
+ * Changed through setters inside {@code modify} blocks, so with property
+ * reactivity only patterns reading the changed threshold are re-evaluated.
+ */
+public class LicensePolicy {
+
+    public static final int DEFAULT_EXPIRING_SOON_DAYS = 30;
+    public static final String DEFAULT_EXPIRED_SEVERITY = "HIGH";
+    public static final String DEFAULT_EXPIRING_SOON_SEVERITY = "MEDIUM";
+
+    private final ProviderDto provider;
+    private final ProviderDto.LicenseDto license;
+    private final String state;
+    private final String licenseType;
+    private final LocalDate asOf;
+    private int expiringSoonDays = DEFAULT_EXPIRING_SOON_DAYS;
+    private String expiredSeverity = DEFAULT_EXPIRED_SEVERITY;
+    private String expiringSoonSeverity = DEFAULT_EXPIRING_SOON_SEVERITY;
+
+    /**
+     * The policy for any license of this state and type, with no license to
+     * judge; used to look up the thresholds the table sets.
+     */
+    public LicensePolicy(String state, String licenseType) {
+        this.provider = null;
+        this.license = null;
+        this.state = state;
+        this.licenseType = licenseType;
+        this.asOf = null;
+    }
+
+    public LicensePolicy(ProviderDto provider, ProviderDto.LicenseDto license, LocalDate asOf) {
+        this.provider = provider;
+        this.license = license;
+        this.state = license.state;
+        this.licenseType = license.licenseType;
+        this.asOf = asOf;
+    }
+
+    /** The provider holding the license, which the expiry rule joins on. */
+    public ProviderDto getProvider() {
+        return provider;
+    }
+
+    public ProviderDto.LicenseDto getLicense() {
+        return license;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getLicenseType() {
+        return licenseType;
+    }
+
+    /** The date the license is judged as of. */
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    private boolean hasExpiryDate() {
+        return license != null && license.expiryDate != null;
+    }
+
+    public boolean isExpired() {
+        return hasExpiryDate() && License.isExpired(license.expiryDate, asOf);
+    }
+
+    /** Days from the as-of date to expiry, negative once expired; 0 without an expiry date. */
+    public long getDaysUntilExpiry() {
+        return hasExpiryDate() ? License.daysUntilExpiry(license.expiryDate, asOf) : 0;
+    }
+
+    /** Whether the license expires within this policy's window. */
+    public boolean isExpiringSoon() {
+        return hasExpiryDate() && License.isExpiringSoon(license.expiryDate, expiringSoonDays, asOf);
+    }
+
+    /** Licenses expiring in fewer days than this are expiring soon. */
+    public int getExpiringSoonDays() {
+        return expiringSoonDays;
+    }
+
+    @Modifies({"expiringSoonDays", "expiringSoon"})
+    public void setExpiringSoonDays(int expiringSoonDays) {
+        this.expiringSoonDays = expiringSoonDays;
+    }
+
+    public String getExpiredSeverity() {
+        return expiredSeverity;
+    }
+
+    public void setExpiredSeverity(String expiredSeverity) {
+        this.expiredSeverity = expiredSeverity;
+    }
+
+    public String getExpiringSoonSeverity() {
+        return expiringSoonSeverity;
+    }
+
+    public void setExpiringSoonSeverity(String expiringSoonSeverity) {
+        this.expiringSoonSeverity = expiringSoonSeverity;
+    }
+}
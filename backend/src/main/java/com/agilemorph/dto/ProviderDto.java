@@ -2,17 +2,22 @@ package com.agilemorph.dto;
 
 import com.agilemorph.model.License;
 import com.agilemorph.model.Provider;
+import com.agilemorph.validation.ValidNpi;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDate;
 import java.util.List;
 
+@RegisterForReflection
 public class ProviderDto {
     
     public Long id;
     
     @NotBlank
+    @ValidNpi
     public String npi;
     
     @NotBlank
@@ -37,10 +42,17 @@ public class ProviderDto {
     
     public Provider.VerificationStatus verificationStatus;
     
+    // Optimistic lock token; when sent on update it must match the stored version
+    public Long version;
+    
+    // Collections are left null, and omitted from JSON, by narrower views
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public List<LicenseDto> licenses;
     
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public List<PracticeLocationDto> practiceLocations;
     
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public List<RuleEvaluationDto> ruleEvaluations;
     
     public static class LicenseDto {
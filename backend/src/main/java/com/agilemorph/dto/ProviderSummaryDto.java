@@ -0,0 +1,31 @@
+package com.agilemorph.dto;
+
+import com.agilemorph.model.Provider;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Header view of a provider, populated directly by a JPQL constructor
+ * projection so no entity or lazy collection is loaded.
+ */
+@RegisterForReflection
+public class ProviderSummaryDto {
+
+    public Long id;
+    public String npi;
+    public String firstName;
+    public String lastName;
+    public String middleName;
+    public String specialty;
+    public Provider.VerificationStatus verificationStatus;
+
+    public ProviderSummaryDto(Long id, String npi, String firstName, String lastName, String middleName,
+                              String specialty, Provider.VerificationStatus verificationStatus) {
+        this.id = id;
+        this.npi = npi;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.middleName = middleName;
+        this.specialty = specialty;
+        this.verificationStatus = verificationStatus;
+    }
+}
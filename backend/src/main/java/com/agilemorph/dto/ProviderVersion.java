@@ -0,0 +1,24 @@
+package com.agilemorph.dto;
+
+import java.time.Instant;
+
+/**
+ * Validators for one view of a provider, read with projection queries rather
+ * than by loading the provider, so a conditional GET can be answered without
+ * touching its collections.
+ */
+public class ProviderVersion {
+
+    public Long id;
+
+    /**
+     * Changes whenever this view of the provider can: with the provider's
+     * version, with the day license expiry flags are computed for (except in
+     * the summary view, which has none) and, in the full view, with its
+     * current rule findings.
+     */
+    public String etag;
+
+    /** When this view of the provider last changed, to the second. */
+    public Instant lastModified;
+}
@@ -0,0 +1,22 @@
+package com.agilemorph.dto;
+
+/**
+ * How much of a provider a read returns.
+ *
+ * SUMMARY is a column projection (no collections are touched), STANDARD adds
+ * licenses and practice locations, FULL also includes current rule findings.
+ */
+public enum ProviderView {
+    SUMMARY, STANDARD, FULL;
+
+    public static ProviderView fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return STANDARD;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown view: " + value + " (expected summary, standard or full)");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.agilemorph.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Result of checking a roster for problems that involve more than one
+ * provider, such as a license number held by two of them.
+ */
+@RegisterForReflection
+public class RosterCheckDto {
+
+    public LocalDateTime checkedAt;
+    public long providers;
+    /** Sessions the blocking keys were split across. */
+    public int partitions;
+    /** Keys in the largest partition, the most held in memory at once. */
+    public long largestPartition;
+    public long durationMs;
+    public List<Match> matches;
+
+    /** Two providers sharing a blocking key. */
+    public static class Match {
+        public String ruleName;
+        public String severity;
+        public String message;
+        public RosterKey.Kind kind;
+        public String key;
+        public Long providerId;
+        public String npi;
+        public Long otherProviderId;
+        public String otherNpi;
+    }
+}
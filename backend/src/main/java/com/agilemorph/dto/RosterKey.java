@@ -0,0 +1,113 @@
+package com.agilemorph.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One blocking key of one provider, the fact cross-provider rules join on.
+ * Two providers can only match when they share a key of the same kind, so a
+ * roster check partitions keys by {@link #partition} and never needs more
+ * than one partition's keys in a session.
+ */
+public class RosterKey {
+
+    public enum Kind {
+        /** The NPI. */
+        NPI,
+        /** Last name, first name and date of birth. */
+        NAME_AND_BIRTH_DATE,
+        /** License state and number. */
+        LICENSE,
+        /** Provider phone and a practice location's street address and ZIP. */
+        PHONE_AND_ADDRESS
+    }
+
+    public Kind kind;
+    public String value;
+    /** Position of the provider in the roster being checked; orders each pair so it matches once. */
+    public long position;
+    public Long providerId;
+    public String npi;
+
+    public RosterKey(Kind kind, String value, long position, ProviderDto provider) {
+        this.kind = kind;
+        this.value = value;
+        this.position = position;
+        this.providerId = provider.id;
+        this.npi = provider.npi;
+    }
+
+    /** Partition of the key among {@code partitions}; equal keys always share one. */
+    public int partition(int partitions) {
+        return Math.floorMod(kind.ordinal() * 31 + value.hashCode(), partitions);
+    }
+
+    /**
+     * The provider's keys, each value once per kind. Values are compared case
+     * and punctuation insensitively, so formatting differences still match.
+     */
+    public static List<RosterKey> keysOf(ProviderDto provider, long position) {
+        List<RosterKey> keys = new ArrayList<>();
+        add(keys, Kind.NPI, digits(provider.npi), position, provider);
+        if (provider.lastName != null && provider.firstName != null && provider.dateOfBirth != null) {
+            add(keys, Kind.NAME_AND_BIRTH_DATE,
+                fold(provider.lastName) + '|' + fold(provider.firstName) + '|' + provider.dateOfBirth, position, provider);
+        }
+
+        Set<String> values = new LinkedHashSet<>();
+        if (provider.licenses != null) {
+            for (ProviderDto.LicenseDto license : provider.licenses) {
+                if (license.state != null && license.licenseNumber != null) {
+                    values.add(fold(license.state) + '|' + fold(license.licenseNumber));
+                }
+            }
+        }
+        values.forEach(value -> add(keys, Kind.LICENSE, value, position, provider));
+
+        values.clear();
+        String phone = digits(provider.phone);
+        if (phone != null && !phone.isEmpty() && provider.practiceLocations != null) {
+            for (ProviderDto.PracticeLocationDto location : provider.practiceLocations) {
+                if (location.addressLine1 != null && location.zipCode != null) {
+                    values.add(phone + '|' + fold(location.addressLine1) + '|' + digits(location.zipCode));
+                }
+            }
+        }
+        values.forEach(value -> add(keys, Kind.PHONE_AND_ADDRESS, value, position, provider));
+        return keys;
+    }
+
+    private static void add(List<RosterKey> keys, Kind kind, String value, long position, ProviderDto provider) {
+        if (value != null && !value.isEmpty()) {
+            keys.add(new RosterKey(kind, value, position, provider));
+        }
+    }
+
+    /** Letters and digits only, lower case. */
+    private static String fold(String value) {
+        StringBuilder folded = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                folded.append(Character.toLowerCase(c));
+            }
+        }
+        return folded.toString();
+    }
+
+    private static String digits(String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+}
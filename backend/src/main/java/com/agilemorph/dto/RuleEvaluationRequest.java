@@ -1,8 +1,11 @@
 package com.agilemorph.dto;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
 import java.util.Map;
 
+@RegisterForReflection
 public class RuleEvaluationRequest {
     
     @NotNull
@@ -12,5 +15,13 @@ public class RuleEvaluationRequest {
     
     public String ruleSet;
     
-    public boolean includeFacts = true;
+    // Echo the session's working memory back in the response metadata
+    public boolean includeFacts = false;
+    
+    // Record the names of fired rules, in firing order, in the response metadata
+    public boolean includeTrace = false;
+    
+    // Evaluate license expiry as of this date instead of today; such
+    // forecasts are never persisted
+    public LocalDate asOf;
 }
@@ -1,24 +1,42 @@
 package com.agilemorph.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
+@RegisterForReflection
 public class RuleEvaluationResponse {
     
     public boolean success;
     public String message;
     public LocalDateTime evaluatedAt;
+    // The date license expiry was judged against
+    public LocalDate asOf;
     public List<RuleResult> results;
-    public Map<String, Object> metadata;
+    public EvaluationMetadata metadata;
     
+    // Working memory facts and the firing trace are only serialized when the
+    // request opts in via includeFacts / includeTrace; compact responses carry
+    // nothing beyond the rule results and the firing count.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class EvaluationMetadata {
+        public int rulesFired;
+        public List<Object> facts;
+        public List<String> trace;
+    }
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class RuleResult {
         public String ruleName;
+        // What the result is about when a rule can fire more than once per
+        // provider (e.g. one license); keys the provider's current finding
+        public String subject;
         public boolean triggered;
         public String severity;
         public String message;
         public String metadata;
         public List<String> facts;
-        public Map<String, Object> context;
     }
 }
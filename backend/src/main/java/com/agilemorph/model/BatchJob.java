@@ -0,0 +1,90 @@
+package com.agilemorph.model;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * Durable state of a long-running job over the provider table. Work is done
+ * in committed chunks and checkpoint records how far the last chunk got, so a
+ * failed or interrupted job can resume where it stopped: the last provider id
+ * for normalization, the number of input rows consumed for an import.
+ */
+@Entity
+@Table(name = "batch_jobs")
+public class BatchJob extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "batch_jobs_seq")
+    @SequenceGenerator(name = "batch_jobs_seq", sequenceName = "batch_jobs_seq", allocationSize = 1)
+    public Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type", nullable = false)
+    public JobType jobType;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    public JobStatus status = JobStatus.PENDING;
+
+    @Column(name = "checkpoint_id", nullable = false)
+    public Long checkpoint = 0L;
+
+    @Column(name = "total")
+    public Long total;
+
+    @Column(name = "processed", nullable = false)
+    public Long processed = 0L;
+
+    @Column(name = "updated", nullable = false)
+    public Long updated = 0L;
+
+    @Column(name = "failed", nullable = false)
+    public Long failed = 0L;
+
+    /** Spooled input of an import job. */
+    @Column(name = "source", length = 500)
+    public String source;
+
+    @Column(name = "source_format", length = 20)
+    public String sourceFormat;
+
+    @Column(name = "error", columnDefinition = "TEXT")
+    public String error;
+
+    @Column(name = "created_at", nullable = false)
+    public LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "started_at")
+    public LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    public LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    public LocalDateTime finishedAt;
+
+    public enum JobType {
+        NORMALIZATION, IMPORT, RULE_EVALUATION
+    }
+
+    public enum JobStatus {
+        PENDING, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isActive() {
+            return this == PENDING || this == RUNNING;
+        }
+    }
+
+    public boolean isResumable() {
+        return status == JobStatus.FAILED;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
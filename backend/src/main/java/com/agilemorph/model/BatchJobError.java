@@ -0,0 +1,34 @@
+package com.agilemorph.model;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+/**
+ * A row an import job rejected. Written in the same transaction as the chunk
+ * it belongs to, so a resumed job never reports a row twice.
+ */
+@Entity
+@Table(name = "batch_job_errors")
+public class BatchJobError extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "batch_job_errors_seq")
+    @SequenceGenerator(name = "batch_job_errors_seq", sequenceName = "batch_job_errors_seq", allocationSize = 1)
+    public Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    public BatchJob job;
+
+    @Column(name = "source_row", nullable = false)
+    public Long row;
+
+    @Column(name = "source_line")
+    public Long line;
+
+    @Column(name = "npi", length = 20)
+    public String npi;
+
+    @Column(name = "error", columnDefinition = "TEXT")
+    public String error;
+}
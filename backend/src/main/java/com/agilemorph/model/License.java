@@ -4,11 +4,14 @@ import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
 @Table(name = "licenses")
+@DynamicUpdate
 public class License extends PanacheEntityBase {
 
     @Id
@@ -54,16 +57,36 @@ public class License extends PanacheEntityBase {
         ACTIVE, EXPIRED, SUSPENDED, REVOKED
     }
     
-    public boolean isExpired() {
-        return LocalDate.now().isAfter(expiryDate);
+    public boolean isExpired(LocalDate asOf) {
+        return isExpired(expiryDate, asOf);
     }
     
-    public boolean isExpiringSoon(int daysThreshold) {
-        return LocalDate.now().plusDays(daysThreshold).isAfter(expiryDate) && !isExpired();
+    public boolean isExpiringSoon(int daysThreshold, LocalDate asOf) {
+        return isExpiringSoon(expiryDate, daysThreshold, asOf);
     }
     
-    public long getDaysUntilExpiry() {
-        return java.time.temporal.ChronoUnit.DAYS.between(LocalDate.now(), expiryDate);
+    public long getDaysUntilExpiry(LocalDate asOf) {
+        return daysUntilExpiry(expiryDate, asOf);
+    }
+    
+    /**
+     * Days from asOf to the expiry date, negative once expired. These static
+     * forms are the expiry rules for license DTOs as well as entities. None of
+     * them reads today's date: callers pass the injected clock's date or the
+     * date they evaluate as of.
+     */
+    public static long daysUntilExpiry(LocalDate expiryDate, LocalDate asOf) {
+        return ChronoUnit.DAYS.between(asOf, expiryDate);
+    }
+    
+    /** A license is still valid on its expiry date. */
+    public static boolean isExpired(LocalDate expiryDate, LocalDate asOf) {
+        return daysUntilExpiry(expiryDate, asOf) < 0;
+    }
+    
+    public static boolean isExpiringSoon(LocalDate expiryDate, int daysThreshold, LocalDate asOf) {
+        long days = daysUntilExpiry(expiryDate, asOf);
+        return days >= 0 && days < daysThreshold;
     }
     
     @PreUpdate
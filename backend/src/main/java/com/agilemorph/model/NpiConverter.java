@@ -0,0 +1,31 @@
+package com.agilemorph.model;
+
+import com.agilemorph.validation.Npi;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores the NPI as a BIGINT while the rest of the application keeps working
+ * with the ten digit string, so the unique index compares eight byte keys
+ * instead of strings.
+ */
+@Converter
+public class NpiConverter implements AttributeConverter<String, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(String npi) {
+        if (npi == null) {
+            return null;
+        }
+        long value = Npi.parseDigits(npi);
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid NPI: " + npi);
+        }
+        return value;
+    }
+
+    @Override
+    public String convertToEntityAttribute(Long value) {
+        return value == null ? null : Npi.format(value);
+    }
+}
@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -12,6 +14,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "providers")
+@DynamicUpdate
 public class Provider extends PanacheEntityBase {
 
     @Id
@@ -20,6 +23,7 @@ public class Provider extends PanacheEntityBase {
     public Long id;
     
     @NotBlank
+    @Convert(converter = NpiConverter.class)
     @Column(name = "npi", unique = true, nullable = false)
     public String npi;
     
@@ -61,18 +65,19 @@ public class Provider extends PanacheEntityBase {
     @Column(name = "updated_at")
     public LocalDateTime updatedAt;
     
-    @OneToMany(mappedBy = "provider", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Version
+    @Column(name = "version", nullable = false)
+    public Long version = 0L;
+    
+    @OneToMany(mappedBy = "provider", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     public List<License> licenses = new ArrayList<>();
     
-    @OneToMany(mappedBy = "provider", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OneToMany(mappedBy = "provider", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     public List<PracticeLocation> practiceLocations = new ArrayList<>();
     
     @OneToMany(mappedBy = "provider", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     public List<AuditLog> auditLogs = new ArrayList<>();
     
-    @OneToMany(mappedBy = "provider", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    public List<RuleEvaluation> ruleEvaluations = new ArrayList<>();
-    
     public enum VerificationStatus {
         PENDING, VERIFIED, FLAGGED, REJECTED
     }
@@ -85,21 +90,18 @@ public class Provider extends PanacheEntityBase {
         return firstName + " " + lastName;
     }
     
-    public boolean hasExpiredLicense() {
-        return licenses.stream().anyMatch(license -> license.isExpired());
-    }
-    
-    public boolean hasValidLicense() {
-        return licenses.stream().anyMatch(license -> !license.isExpired());
-    }
-    
     public void addAuditLog(String action, String details) {
         AuditLog auditLog = new AuditLog();
         auditLog.provider = this;
         auditLog.action = action;
         auditLog.details = details;
         auditLog.timestamp = LocalDateTime.now();
-        this.auditLogs.add(auditLog);
+        // Persist directly rather than through the collection, which would
+        // load every existing audit row of an already-stored provider
+        if (Hibernate.isInitialized(this.auditLogs)) {
+            this.auditLogs.add(auditLog);
+        }
+        auditLog.persist();
     }
     
     @PreUpdate
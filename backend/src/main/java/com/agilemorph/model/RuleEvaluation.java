@@ -4,20 +4,29 @@ import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Append-only history of rule results. Provider reads use {@link RuleFinding};
+ * this table is only read by the paginated history endpoint.
+ */
 @Entity
 @Table(name = "rule_evaluations")
 public class RuleEvaluation extends PanacheEntityBase {
     
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rule_evaluations_seq")
-    @SequenceGenerator(name = "rule_evaluations_seq", sequenceName = "rule_evaluations_seq", allocationSize = 1)
+    // One nextval per 50 rows written; the sequence steps by 50 to match (V10)
+    @SequenceGenerator(name = "rule_evaluations_seq", sequenceName = "rule_evaluations_seq", allocationSize = 50)
     public Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "provider_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     public Provider provider;
     
     @NotBlank
@@ -41,8 +50,11 @@ public class RuleEvaluation extends PanacheEntityBase {
     public LocalDateTime evaluatedAt = LocalDateTime.now();
     
     @ElementCollection
-    @CollectionTable(name = "rule_evaluation_facts", joinColumns = @JoinColumn(name = "rule_evaluation_id"))
+    @CollectionTable(name = "rule_evaluation_facts", joinColumns = @JoinColumn(name = "rule_evaluation_id"),
+        foreignKey = @ForeignKey(foreignKeyDefinition =
+            "FOREIGN KEY (rule_evaluation_id) REFERENCES rule_evaluations(id) ON DELETE CASCADE"))
     @Column(name = "fact")
+    @BatchSize(size = 50)
     public List<String> facts;
     
     public RuleEvaluation() {
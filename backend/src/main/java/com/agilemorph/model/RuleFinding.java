@@ -0,0 +1,65 @@
+package com.agilemorph.model;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import java.time.LocalDateTime;
+
+/**
+ * Current outcome of a rule for a provider, one row per provider, rule and
+ * subject (e.g. the license a finding is about). Rows are upserted on every
+ * evaluation and removed once the rule stops firing; the append-only history
+ * lives in {@link RuleEvaluation}.
+ */
+@Entity
+@Table(name = "rule_findings",
+    uniqueConstraints = @UniqueConstraint(name = "uk_rule_findings_provider_rule_subject",
+        columnNames = {"provider_id", "rule_name", "subject"}))
+public class RuleFinding extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rule_findings_seq")
+    // One nextval per 50 rows written; the sequence steps by 50 to match (V10)
+    @SequenceGenerator(name = "rule_findings_seq", sequenceName = "rule_findings_seq", allocationSize = 50)
+    public Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "provider_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    public Provider provider;
+
+    @NotBlank
+    @Column(name = "rule_name", nullable = false)
+    public String ruleName;
+
+    @NotNull
+    @Column(name = "subject", nullable = false)
+    public String subject = "";
+
+    @Column(name = "triggered", nullable = false)
+    public Boolean triggered = false;
+
+    @Column(name = "severity")
+    public String severity;
+
+    @Column(name = "message", columnDefinition = "TEXT")
+    public String message;
+
+    @Column(name = "metadata", columnDefinition = "TEXT")
+    public String metadata;
+
+    // Newline-separated, so reading a finding never needs a second table
+    @Column(name = "facts", columnDefinition = "TEXT")
+    public String facts;
+
+    @NotNull
+    @Column(name = "first_seen_at", nullable = false)
+    public LocalDateTime firstSeenAt = LocalDateTime.now();
+
+    @NotNull
+    @Column(name = "evaluated_at", nullable = false)
+    public LocalDateTime evaluatedAt = LocalDateTime.now();
+}
@@ -0,0 +1,58 @@
+package com.agilemorph.nativeimage;
+
+import org.graalvm.nativeimage.hosted.Feature;
+import org.graalvm.nativeimage.hosted.RuntimeReflection;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+
+/**
+ * Native-image build hook for the Drools executable model.
+ *
+ * kie-maven-plugin names the generated rule classes with a fresh random
+ * suffix on every build and lists them in {@code drools-model}, from where
+ * Drools instantiates them reflectively. No static reflection config can name
+ * them, so this feature reads the list while the image is built and registers
+ * each class. Enabled by {@code quarkus.native.additional-build-args}; never
+ * loaded on the JVM.
+ */
+public class ExecutableModelFeature implements Feature {
+
+    static final String MODEL_LIST = "META-INF/kie/com.agilemorph/provider-platform/drools-model";
+
+    @Override
+    public void beforeAnalysis(BeforeAnalysisAccess access) {
+        try {
+            Enumeration<URL> lists = access.getApplicationClassLoader().getResources(MODEL_LIST);
+            while (lists.hasMoreElements()) {
+                register(access, lists.nextElement());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + MODEL_LIST, e);
+        }
+    }
+
+    private static void register(BeforeAnalysisAccess access, URL list) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(list.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                // First line is "Drools-Model-Version:<version>"
+                if (line.isEmpty() || line.contains(":")) {
+                    continue;
+                }
+                Class<?> model = access.findClassByName(line);
+                if (model == null) {
+                    throw new IllegalStateException("Executable model class " + line + " listed in " + list + " not found");
+                }
+                RuntimeReflection.register(model);
+                RuntimeReflection.register(model.getDeclaredConstructors());
+            }
+        }
+    }
+}
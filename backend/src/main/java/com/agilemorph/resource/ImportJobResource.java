@@ -0,0 +1,175 @@
+package com.agilemorph.resource;
+
+import com.agilemorph.dto.BatchJobDto;
+import com.agilemorph.service.ImportJobService;
+import com.agilemorph.service.ProviderImportService;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+@Path("/api/import-jobs")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Import Jobs", description = "Background provider roster imports")
+public class ImportJobResource {
+
+    @Inject
+    ImportJobService importJobService;
+
+    @ConfigProperty(name = "agilemorph.import.progress-interval", defaultValue = "1S")
+    Duration progressInterval;
+
+    @POST
+    @Consumes({"text/csv", "application/x-ndjson", MediaType.APPLICATION_JSON})
+    @Operation(summary = "Submit import job", description = "Queues a CSV (with header row), NDJSON or JSON array roster for import and returns the job to poll")
+    public Response submitJob(InputStream roster, @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType) {
+        try {
+            BatchJobDto job = importJobService.submitJob(roster, ProviderImportService.Format.fromMediaType(contentType));
+            return Response.status(Response.Status.ACCEPTED)
+                .location(URI.create("/api/import-jobs/" + job.id))
+                .entity(job)
+                .build();
+
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (RejectedExecutionException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/{jobId}")
+    @Operation(summary = "Get import job", description = "Retrieves progress of an import job: rows read, imported, rejected and throughput")
+    public Response getJob(@PathParam("jobId") Long jobId) {
+        try {
+            return Response.ok(importJobService.getJob(jobId)).build();
+
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/{jobId}/progress")
+    @Blocking
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Stream import job progress", description = "Sends the job's state as server-sent events until it stops running")
+    public Multi<BatchJobDto> streamProgress(@PathParam("jobId") Long jobId) {
+        // Fails with 404 before the stream opens
+        importJobService.getJob(jobId);
+
+        Multi<BatchJobDto> running = Multi.createFrom().ticks().every(progressInterval)
+            .onItem().transform(tick -> importJobService.getJob(jobId))
+            .select().first(job -> job.status.isActive());
+        return Multi.createBy().concatenating()
+            .streams(running, Multi.createFrom().item(() -> importJobService.getJob(jobId)));
+    }
+
+    @GET
+    @Path("/{jobId}/errors")
+    @Operation(summary = "Get import job errors", description = "Retrieves a page of the rows an import job rejected, in input order")
+    public Response getJobErrors(@PathParam("jobId") Long jobId,
+                                 @QueryParam("page") @DefaultValue("0") int page,
+                                 @QueryParam("size") @DefaultValue("100") int size) {
+        try {
+            if (page < 0 || size < 1 || size > 1000) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", "page must be >= 0 and size between 1 and 1000"))
+                    .build();
+            }
+            return Response.ok(Map.of(
+                "errors", importJobService.getJobErrors(jobId, page, size),
+                "page", page,
+                "size", size
+            )).build();
+
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+
+    @POST
+    @Path("/{jobId}/cancel")
+    @Operation(summary = "Cancel import job", description = "Stops an import job after its current chunk; rows already committed stay imported")
+    public Response cancelJob(@PathParam("jobId") Long jobId) {
+        try {
+            BatchJobDto job = importJobService.cancelJob(jobId);
+            return Response.status(Response.Status.ACCEPTED).entity(job).build();
+
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+
+    @POST
+    @Path("/{jobId}/resume")
+    @Operation(summary = "Resume import job", description = "Restarts a failed import job from its last committed chunk")
+    public Response resumeJob(@PathParam("jobId") Long jobId) {
+        try {
+            BatchJobDto job = importJobService.resumeJob(jobId);
+            return Response.status(Response.Status.ACCEPTED).entity(job).build();
+
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (RejectedExecutionException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+}
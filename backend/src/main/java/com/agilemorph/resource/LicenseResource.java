@@ -0,0 +1,59 @@
+package com.agilemorph.resource;
+
+import com.agilemorph.dto.LicenseExpiryForecastDto;
+import com.agilemorph.service.LicenseExpiryForecastService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+@Path("/api/licenses")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Licenses", description = "Reporting across provider licenses")
+public class LicenseResource {
+
+    @Inject
+    LicenseExpiryForecastService licenseExpiryForecastService;
+
+    @ConfigProperty(name = "agilemorph.licenses.forecast.max-age", defaultValue = "60S")
+    Duration forecastMaxAge;
+
+    @GET
+    @Path("/expiry-forecast")
+    @Operation(summary = "License expiry forecast", description = "Counts licenses expiring within each horizon (horizons=30,60,90 by default) by state and license type, from today or asOf=YYYY-MM-DD")
+    public Response getExpiryForecast(@QueryParam("horizons") String horizons, @QueryParam("asOf") String asOf) {
+        try {
+            LicenseExpiryForecastDto forecast = asOf != null
+                ? licenseExpiryForecastService.getForecast(LicenseExpiryForecastService.parseHorizons(horizons), LocalDate.parse(asOf))
+                : licenseExpiryForecastService.getForecast(LicenseExpiryForecastService.parseHorizons(horizons));
+
+            // Expiry counts move at most daily, so dashboards polling this can be served from caches
+            CacheControl cacheControl = new CacheControl();
+            cacheControl.setMaxAge((int) forecastMaxAge.toSeconds());
+            return Response.ok(forecast).cacheControl(cacheControl).build();
+
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(Map.of("error", "asOf must be a date in YYYY-MM-DD form"))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.agilemorph.resource;
+
+import com.agilemorph.dto.BatchJobDto;
+import com.agilemorph.service.NormalizationJobService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.util.Map;
+
+@Path("/api/normalization-jobs")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Normalization Jobs", description = "Bulk normalization of stored providers")
+public class NormalizationJobResource {
+
+    @Inject
+    NormalizationJobService normalizationJobService;
+
+    @POST
+    @Operation(summary = "Start normalization job", description = "Normalizes names of every stored provider in the background")
+    public Response startJob() {
+        try {
+            BatchJobDto job = normalizationJobService.startJob();
+            return Response.status(Response.Status.ACCEPTED).entity(job).build();
+
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/{jobId}")
+    @Operation(summary = "Get normalization job", description = "Retrieves progress of a normalization job")
+    public Response getJob(@PathParam("jobId") Long jobId) {
+        try {
+            return Response.ok(normalizationJobService.getJob(jobId)).build();
+
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+
+    @POST
+    @Path("/{jobId}/resume")
+    @Operation(summary = "Resume normalization job", description = "Restarts a failed normalization job from its last committed chunk")
+    public Response resumeJob(@PathParam("jobId") Long jobId) {
+        try {
+            BatchJobDto job = normalizationJobService.resumeJob(jobId);
+            return Response.status(Response.Status.ACCEPTED).entity(job).build();
+
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+}
@@ -1,22 +1,35 @@
 package com.agilemorph.resource;
 
+import com.agilemorph.dto.ImportReportDto;
 import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.dto.ProviderVersion;
+import com.agilemorph.dto.ProviderView;
 import com.agilemorph.dto.RuleEvaluationRequest;
 import com.agilemorph.dto.RuleEvaluationResponse;
 import com.agilemorph.model.Provider;
+import com.agilemorph.service.ProviderImportService;
 import com.agilemorph.service.ProviderService;
 import com.agilemorph.service.RuleEngineService;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import java.io.InputStream;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Path("/api/providers")
 @Produces(MediaType.APPLICATION_JSON)
@@ -30,6 +43,9 @@ public class ProviderResource {
     @Inject
     RuleEngineService ruleEngineService;
     
+    @Inject
+    ProviderImportService providerImportService;
+    
     @POST
     @Operation(summary = "Create a new provider", description = "Creates a new healthcare provider record")
     @Transactional
@@ -76,13 +92,42 @@ public class ProviderResource {
         }
     }
     
+    @POST
+    @Path("/import")
+    @Consumes({"text/csv", "application/x-ndjson", MediaType.APPLICATION_JSON})
+    @Operation(summary = "Import provider roster", description = "Streams a CSV (with header row), NDJSON or JSON array roster into the database in chunked transactions and returns a per-row error report")
+    public Response importProviders(InputStream roster, @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType) {
+        try {
+            ImportReportDto report = providerImportService.importProviders(
+                roster, ProviderImportService.Format.fromMediaType(contentType));
+            return Response.ok(report).build();
+            
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+    
     @GET
-    @Operation(summary = "Get all providers", description = "Retrieves all healthcare providers")
-    public Response getAllProviders() {
+    @Operation(summary = "Get all providers", description = "Retrieves all healthcare providers; view=summary|standard|full controls how much of each provider is returned")
+    public Response getAllProviders(@QueryParam("view") String view) {
         try {
-            List<ProviderDto> providers = providerService.getAllProviders();
+            ProviderView providerView = ProviderView.fromParam(view);
+            if (providerView == ProviderView.SUMMARY) {
+                return Response.ok(providerService.getAllProviderSummaries()).build();
+            }
+            List<ProviderDto> providers = providerService.getAllProviders(providerView);
             return Response.ok(providers).build();
             
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity(Map.of("error", e.getMessage()))
@@ -92,12 +137,20 @@ public class ProviderResource {
     
     @GET
     @Path("/{id}")
-    @Operation(summary = "Get provider by ID", description = "Retrieves a specific healthcare provider by ID")
-    public Response getProvider(@PathParam("id") Long id) {
+    @Operation(summary = "Get provider by ID", description = "Retrieves a specific healthcare provider by ID; view=summary|standard|full controls how much of the provider is returned")
+    public Response getProvider(@PathParam("id") Long id, @QueryParam("view") String view,
+                                @Context Request request) {
         try {
-            ProviderDto provider = providerService.getProvider(id);
-            return Response.ok(provider).build();
+            ProviderView providerView = ProviderView.fromParam(view);
+            ProviderVersion version = providerService.getProviderVersion(id, providerView);
+            return conditionalGet(request, version, () -> providerView == ProviderView.SUMMARY
+                ? providerService.getProviderSummary(id)
+                : providerService.getProvider(id, providerView, version));
             
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
         } catch (jakarta.ws.rs.NotFoundException e) {
             return Response.status(Response.Status.NOT_FOUND)
                 .entity(Map.of("error", e.getMessage()))
@@ -111,12 +164,20 @@ public class ProviderResource {
     
     @GET
     @Path("/npi/{npi}")
-    @Operation(summary = "Get provider by NPI", description = "Retrieves a specific healthcare provider by NPI")
-    public Response getProviderByNpi(@PathParam("npi") String npi) {
+    @Operation(summary = "Get provider by NPI", description = "Retrieves a specific healthcare provider by NPI; view=summary|standard|full controls how much of the provider is returned")
+    public Response getProviderByNpi(@PathParam("npi") String npi, @QueryParam("view") String view,
+                                     @Context Request request) {
         try {
-            ProviderDto provider = providerService.getProviderByNpi(npi);
-            return Response.ok(provider).build();
+            ProviderView providerView = ProviderView.fromParam(view);
+            ProviderVersion version = providerService.getProviderVersionByNpi(npi, providerView);
+            return conditionalGet(request, version, () -> providerView == ProviderView.SUMMARY
+                ? providerService.getProviderSummaryByNpi(npi)
+                : providerService.getProviderByNpi(npi, providerView, version));
             
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
         } catch (jakarta.ws.rs.NotFoundException e) {
             return Response.status(Response.Status.NOT_FOUND)
                 .entity(Map.of("error", e.getMessage()))
@@ -130,12 +191,53 @@ public class ProviderResource {
     
     @GET
     @Path("/status/{status}")
-    @Operation(summary = "Get providers by verification status", description = "Retrieves providers filtered by verification status")
-    public Response getProvidersByStatus(@PathParam("status") Provider.VerificationStatus status) {
+    @Operation(summary = "Get providers by verification status", description = "Retrieves providers filtered by verification status; view=summary|standard|full controls how much of each provider is returned")
+    public Response getProvidersByStatus(@PathParam("status") Provider.VerificationStatus status,
+                                         @QueryParam("view") String view) {
         try {
-            List<ProviderDto> providers = providerService.getProvidersByStatus(status);
+            ProviderView providerView = ProviderView.fromParam(view);
+            if (providerView == ProviderView.SUMMARY) {
+                return Response.ok(providerService.getProviderSummariesByStatus(status)).build();
+            }
+            List<ProviderDto> providers = providerService.getProvidersByStatus(status, providerView);
             return Response.ok(providers).build();
             
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+    
+    @GET
+    @Path("/{id}/rule-evaluations")
+    @Operation(summary = "Get rule evaluation history", description = "Retrieves a page of historical rule evaluations for a provider, newest first")
+    public Response getRuleEvaluationHistory(@PathParam("id") Long id,
+                                             @QueryParam("page") @DefaultValue("0") int page,
+                                             @QueryParam("size") @DefaultValue("20") int size) {
+        try {
+            if (page < 0 || size < 1 || size > 100) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", "page must be >= 0 and size between 1 and 100"))
+                    .build();
+            }
+            List<ProviderDto.RuleEvaluationDto> evaluations = providerService.getRuleEvaluationHistory(id, page, size);
+            long total = providerService.countRuleEvaluationHistory(id);
+            return Response.ok(Map.of(
+                "evaluations", evaluations,
+                "page", page,
+                "size", size,
+                "total", total
+            )).build();
+            
+        } catch (jakarta.ws.rs.NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity(Map.of("error", e.getMessage()))
@@ -156,6 +258,10 @@ public class ProviderResource {
             return Response.status(Response.Status.NOT_FOUND)
                 .entity(Map.of("error", e.getMessage()))
                 .build();
+        } catch (jakarta.persistence.OptimisticLockException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
         } catch (Exception e) {
             return Response.status(Response.Status.BAD_REQUEST)
                 .entity(Map.of("error", e.getMessage()))
@@ -183,15 +289,38 @@ public class ProviderResource {
         }
     }
     
+    @PATCH
+    @Path("/{id}")
+    @Consumes({"application/merge-patch+json", MediaType.APPLICATION_JSON})
+    @Operation(summary = "Partially update provider", description = "Applies a JSON Merge Patch; only the fields present are changed")
+    @Transactional
+    public Response patchProvider(@PathParam("id") Long id, JsonNode patch) {
+        try {
+            ProviderDto patchedProvider = providerService.patchProvider(id, patch);
+            return Response.ok(patchedProvider).build();
+            
+        } catch (jakarta.ws.rs.NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (jakarta.persistence.OptimisticLockException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+    
     @POST
     @Path("/{id}/normalize")
     @Operation(summary = "Normalize provider data", description = "Normalizes provider data for consistency")
     public Response normalizeProvider(@PathParam("id") Long id) {
         try {
-            ProviderDto provider = providerService.getProvider(id);
-            ProviderDto normalizedProvider = providerService.normalizeProvider(provider);
-            ProviderDto updatedProvider = providerService.updateProvider(id, normalizedProvider);
-            return Response.ok(updatedProvider).build();
+            ProviderDto normalizedProvider = providerService.normalizeProvider(id);
+            return Response.ok(normalizedProvider).build();
             
         } catch (jakarta.ws.rs.NotFoundException e) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -209,7 +338,7 @@ public class ProviderResource {
     @Operation(summary = "Find potential duplicates", description = "Finds potential duplicate providers")
     public Response findPotentialDuplicates(@PathParam("id") Long id) {
         try {
-            ProviderDto provider = providerService.getProvider(id);
+            ProviderDto provider = providerService.getProvider(id, ProviderView.SUMMARY);
             List<ProviderDto> duplicates = providerService.findPotentialDuplicates(provider);
             return Response.ok(Map.of("duplicates", duplicates, "count", duplicates.size())).build();
             
@@ -223,4 +352,30 @@ public class ProviderResource {
                 .build();
         }
     }
+    
+    /**
+     * Answers If-None-Match / If-Modified-Since from the provider's version
+     * alone, loading the body only when the client's copy is stale. The
+     * version is read first, so a change racing the load can only make the
+     * validators older than the body, never newer. That holds for coalesced
+     * loads too, because the body supplier passes the version on and only
+     * loads for the same version are shared.
+     */
+    private static Response conditionalGet(Request request, ProviderVersion version, Supplier<Object> body) {
+        EntityTag etag = new EntityTag(version.etag, true);
+        Date lastModified = Date.from(version.lastModified);
+        // Clients may keep the body but must revalidate before reusing it
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+        
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(lastModified, etag);
+        if (notModified != null) {
+            return notModified.tag(etag).cacheControl(cacheControl).build();
+        }
+        return Response.ok(body.get())
+            .tag(etag)
+            .lastModified(lastModified)
+            .cacheControl(cacheControl)
+            .build();
+    }
 }
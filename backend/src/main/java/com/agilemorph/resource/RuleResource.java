@@ -1,16 +1,25 @@
 package com.agilemorph.resource;
 
+import com.agilemorph.dto.BatchJobDto;
+import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.dto.RosterCheckDto;
 import com.agilemorph.dto.RuleEvaluationRequest;
 import com.agilemorph.dto.RuleEvaluationResponse;
+import com.agilemorph.service.RosterCheckService;
+import com.agilemorph.service.RosterEvaluationService;
 import com.agilemorph.service.RuleEngineService;
+import com.agilemorph.service.RuleEvaluationHaltedException;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +32,12 @@ public class RuleResource {
     @Inject
     RuleEngineService ruleEngineService;
     
+    @Inject
+    RosterEvaluationService rosterEvaluationService;
+    
+    @Inject
+    RosterCheckService rosterCheckService;
+    
     @POST
     @Path("/evaluate")
     @Operation(summary = "Evaluate rules against provider", description = "Evaluates configured business rules against a provider payload")
@@ -38,6 +53,8 @@ public class RuleResource {
                     .build();
             }
             
+        } catch (RuleEvaluationHaltedException | CircuitBreakerOpenException e) {
+            return evaluationUnavailable(e);
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity(Map.of("error", e.getMessage()))
@@ -47,10 +64,12 @@ public class RuleResource {
     
     @POST
     @Path("/evaluate/{providerId}")
-    @Operation(summary = "Evaluate rules for provider by ID", description = "Evaluates business rules for a specific provider")
-    public Response evaluateRulesForProvider(@PathParam("providerId") Long providerId) {
+    @Operation(summary = "Evaluate rules for provider by ID", description = "Evaluates business rules for a specific provider, optionally as of a later date (asOf=YYYY-MM-DD) without saving the findings")
+    public Response evaluateRulesForProvider(@PathParam("providerId") Long providerId,
+                                             @QueryParam("asOf") String asOf) {
         try {
-            RuleEvaluationResponse response = ruleEngineService.evaluateRulesForProvider(providerId);
+            LocalDate asOfDate = asOf != null ? LocalDate.parse(asOf) : null;
+            RuleEvaluationResponse response = ruleEngineService.evaluateRulesForProvider(providerId, asOfDate);
             
             if (response.success) {
                 return Response.ok(response).build();
@@ -60,6 +79,80 @@ public class RuleResource {
                     .build();
             }
             
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(Map.of("error", "asOf must be a date in YYYY-MM-DD form"))
+                .build();
+        } catch (RuleEvaluationHaltedException | CircuitBreakerOpenException e) {
+            return evaluationUnavailable(e);
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+    
+    @POST
+    @Path("/evaluate-all")
+    @Operation(summary = "Evaluate rules for all providers", description = "Starts a background run that re-evaluates rules for the whole roster in parallel")
+    public Response evaluateAllProviders() {
+        try {
+            BatchJobDto run = rosterEvaluationService.startRun();
+            return Response.status(Response.Status.ACCEPTED).entity(run).build();
+            
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+    
+    @GET
+    @Path("/evaluation-runs/{runId}")
+    @Operation(summary = "Get rule evaluation run", description = "Retrieves progress, throughput and ETA of a full-roster rule evaluation run")
+    public Response getEvaluationRun(@PathParam("runId") Long runId) {
+        try {
+            return Response.ok(rosterEvaluationService.getRun(runId)).build();
+            
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+    
+    @POST
+    @Path("/roster-check")
+    @Operation(summary = "Check the roster across providers", description = "Finds providers on file that share an NPI, a name and date of birth, a license, or a phone number and practice address")
+    public Response checkRoster() {
+        try {
+            RosterCheckDto result = rosterCheckService.checkRoster();
+            return Response.ok(result).build();
+            
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", e.getMessage()))
+                .build();
+        }
+    }
+    
+    @POST
+    @Path("/roster-check/providers")
+    @Operation(summary = "Check a submitted roster across providers", description = "Runs the cross-provider checks over the providers in the request body, without saving them")
+    public Response checkProviders(List<ProviderDto> providers) {
+        if (providers == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(Map.of("error", "A list of providers is required"))
+                .build();
+        }
+        try {
+            RosterCheckDto result = rosterCheckService.checkProviders(providers);
+            return Response.ok(result).build();
+            
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity(Map.of("error", e.getMessage()))
@@ -95,4 +188,16 @@ public class RuleResource {
                 .build();
         }
     }
+    
+    // Halted evaluations, and those the circuit breaker turns away while rules run slow;
+    // it lets evaluations through again after 10 seconds
+    private static Response evaluationUnavailable(RuntimeException e) {
+        String error = e instanceof CircuitBreakerOpenException
+            ? "Rule evaluations are running over their time budget; retry later"
+            : e.getMessage();
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+            .header("Retry-After", 10)
+            .entity(Map.of("error", error))
+            .build();
+    }
 }
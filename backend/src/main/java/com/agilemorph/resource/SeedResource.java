@@ -65,7 +65,7 @@ public class SeedResource {
         
         // Provider 1 - Valid provider with active license
         ProviderDto provider1 = new ProviderDto();
-        provider1.npi = "1234567890";
+        provider1.npi = "1234567893";
         provider1.firstName = "John";
         provider1.lastName = "Smith";
         provider1.middleName = "Michael";
@@ -102,7 +102,7 @@ public class SeedResource {
         
         // Provider 2 - Provider with expired license (should be flagged)
         ProviderDto provider2 = new ProviderDto();
-        provider2.npi = "2345678901";
+        provider2.npi = "2345678900";
         provider2.firstName = "Jane";
         provider2.lastName = "Doe";
         provider2.email = "jane.doe@example.com";
@@ -138,7 +138,7 @@ public class SeedResource {
         
         // Provider 3 - Provider with multiple locations (potential duplicate scenario)
         ProviderDto provider3 = new ProviderDto();
-        provider3.npi = "3456789012";
+        provider3.npi = "3456789015";
         provider3.firstName = "Robert";
         provider3.lastName = "Johnson";
         provider3.email = "robert.johnson@example.com";
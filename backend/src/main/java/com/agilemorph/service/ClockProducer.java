@@ -0,0 +1,20 @@
+package com.agilemorph.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+
+import java.time.Clock;
+
+/**
+ * The clock services read "today" from. Read it once per request or batch
+ * and pass the date down, so everything in one response agrees on the date;
+ * tests swap in a fixed clock.
+ */
+public class ClockProducer {
+
+    @Produces
+    @ApplicationScoped
+    Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
@@ -0,0 +1,332 @@
+package com.agilemorph.service;
+
+import com.agilemorph.dto.BatchJobDto;
+import com.agilemorph.dto.ImportReportDto;
+import com.agilemorph.model.BatchJob;
+import com.agilemorph.model.BatchJobError;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Page;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.NotFoundException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Runs provider imports in the background. The uploaded roster is spooled to
+ * disk and recorded on a {@link BatchJob}; the job then runs on a bounded
+ * executor, {@code agilemorph.import.parallelism} jobs at a time with up to
+ * {@code agilemorph.import.queue-capacity} waiting.
+ *
+ * Progress, the checkpoint and rejected rows are written inside each chunk's
+ * transaction, so after a crash or restart a job picks up from the last
+ * committed chunk. Each committed chunk also touches the job's
+ * {@code updatedAt}, which serves as its heartbeat: at startup, queued jobs
+ * and running jobs whose heartbeat is older than
+ * {@code agilemorph.import.stale-after} are resubmitted, while jobs another
+ * live instance is still running are left alone. A job only runs once it has
+ * been moved from PENDING to RUNNING in one conditional update, so two
+ * instances or two resumes never import the same rows twice.
+ */
+@ApplicationScoped
+public class ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    @Inject
+    ProviderImportService providerImportService;
+
+    @ConfigProperty(name = "agilemorph.import.parallelism", defaultValue = "2")
+    int parallelism;
+
+    @ConfigProperty(name = "agilemorph.import.queue-capacity", defaultValue = "20")
+    int queueCapacity;
+
+    @ConfigProperty(name = "agilemorph.import.spool-dir")
+    Path spoolDir;
+
+    @ConfigProperty(name = "agilemorph.import.max-reported-errors", defaultValue = "1000")
+    int maxReportedErrors;
+
+    @ConfigProperty(name = "agilemorph.import.resume-on-startup", defaultValue = "true")
+    boolean resumeOnStartup;
+
+    @ConfigProperty(name = "agilemorph.import.stale-after", defaultValue = "5M")
+    Duration staleAfter;
+
+    private ManagedExecutor executor;
+
+    /** Jobs running on this instance, and those asked to stop. */
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final Set<Long> cancelRequested = ConcurrentHashMap.newKeySet();
+
+    void onStart(@Observes StartupEvent event) {
+        executor = ManagedExecutor.builder()
+            .maxAsync(parallelism)
+            .maxQueued(queueCapacity)
+            .build();
+        if (!resumeOnStartup) {
+            return;
+        }
+        LocalDateTime staleBefore = LocalDateTime.now().minus(staleAfter);
+        List<Long> interrupted = QuarkusTransaction.requiringNew().call(() ->
+            BatchJob.<BatchJob>find("jobType = ?1 and (status = ?2 or (status = ?3 and "
+                        + "(updatedAt is null or updatedAt < ?4)))", Sort.by("id"),
+                    BatchJob.JobType.IMPORT, BatchJob.JobStatus.PENDING, BatchJob.JobStatus.RUNNING, staleBefore)
+                .stream()
+                .map(job -> job.id)
+                .collect(Collectors.toList()));
+        for (Long jobId : interrupted) {
+            // Hand an abandoned run back to the queue; run() then claims it
+            QuarkusTransaction.requiringNew().run(() -> BatchJob.update(
+                "status = ?1, updatedAt = ?2 where id = ?3 and status = ?4 "
+                    + "and (updatedAt is null or updatedAt < ?5)",
+                BatchJob.JobStatus.PENDING, LocalDateTime.now(), jobId, BatchJob.JobStatus.RUNNING, staleBefore));
+            logger.info("Resuming import job {} left unfinished by a stopped instance", jobId);
+            try {
+                submit(jobId);
+            } catch (RejectedExecutionException e) {
+                // Already marked FAILED and resumable
+            }
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (executor != null) {
+            // Running jobs stay RUNNING and resume from their checkpoint next start
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Spools the roster to disk and queues an import job for it.
+     */
+    public BatchJobDto submitJob(InputStream roster, ProviderImportService.Format format) throws IOException {
+        Files.createDirectories(spoolDir);
+        Path source = Files.createTempFile(spoolDir, "import-", "." + format.name().toLowerCase(Locale.ROOT));
+        long lines;
+        try (OutputStream out = Files.newOutputStream(source)) {
+            lines = copyCountingLines(roster, out);
+        } catch (IOException e) {
+            Files.deleteIfExists(source);
+            throw e;
+        }
+        // Line count is an estimate of the row count, good enough for progress
+        Long total = switch (format) {
+            case CSV -> Math.max(0, lines - 1);
+            case NDJSON -> lines;
+            case JSON -> null;
+        };
+
+        Long jobId = QuarkusTransaction.requiringNew().call(() -> {
+            BatchJob job = new BatchJob();
+            job.jobType = BatchJob.JobType.IMPORT;
+            job.total = total;
+            job.source = source.toString();
+            job.sourceFormat = format.name();
+            job.persist();
+            return job.id;
+        });
+        submit(jobId);
+        return getJob(jobId);
+    }
+
+    @Transactional
+    public BatchJobDto getJob(Long jobId) {
+        return BatchJobDto.from(findJob(jobId));
+    }
+
+    @Transactional
+    public List<ImportReportDto.RowError> getJobErrors(Long jobId, int page, int size) {
+        findJob(jobId);
+        return BatchJobError.<BatchJobError>find("job.id", Sort.by("row"), jobId)
+            .page(Page.of(page, size))
+            .stream()
+            .map(error -> new ImportReportDto.RowError(error.row, error.line, error.npi, error.error))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Stops a job. A queued or failed job is cancelled at once; a running one
+     * finishes its current chunk first and keeps everything committed so far.
+     */
+    @Transactional
+    public BatchJobDto cancelJob(Long jobId) {
+        BatchJob job = findJob(jobId);
+        if (job.status == BatchJob.JobStatus.COMPLETED || job.status == BatchJob.JobStatus.CANCELLED) {
+            throw new IllegalStateException("Job " + jobId + " is " + job.status + " and cannot be cancelled");
+        }
+        if (job.status.isActive()) {
+            cancelRequested.add(jobId);
+        }
+        if (!running.contains(jobId)) {
+            job.status = BatchJob.JobStatus.CANCELLED;
+            job.finishedAt = LocalDateTime.now();
+            deleteSource(job);
+        }
+        return BatchJobDto.from(job);
+    }
+
+    public BatchJobDto resumeJob(Long jobId) {
+        BatchJob.JobStatus status = getJob(jobId).status;
+        if (status != BatchJob.JobStatus.FAILED) {
+            throw new IllegalStateException("Job " + jobId + " is " + status + " and cannot be resumed");
+        }
+        // Only one of two concurrent resumes gets to queue the job
+        int claimed = QuarkusTransaction.requiringNew().call(() -> BatchJob.update(
+            "status = ?1, error = null, updatedAt = ?2 where id = ?3 and status = ?4",
+            BatchJob.JobStatus.PENDING, LocalDateTime.now(), jobId, BatchJob.JobStatus.FAILED));
+        if (claimed != 1) {
+            throw new IllegalStateException("Job " + jobId + " is already being resumed");
+        }
+        submit(jobId);
+        return getJob(jobId);
+    }
+
+    private BatchJob findJob(Long jobId) {
+        BatchJob job = BatchJob.findById(jobId);
+        if (job == null || job.jobType != BatchJob.JobType.IMPORT) {
+            throw new NotFoundException("Import job not found with id: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Queues the job; if the queue is full the job is marked FAILED so it can
+     * be resumed later, and the rejection is rethrown.
+     */
+    private void submit(Long jobId) {
+        try {
+            executor.runAsync(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Import queue is full, job {} not started", jobId);
+            QuarkusTransaction.requiringNew().run(() -> {
+                BatchJob job = BatchJob.findById(jobId);
+                job.status = BatchJob.JobStatus.FAILED;
+                job.error = "Import queue is full; resume the job later";
+            });
+            throw new RejectedExecutionException("Import queue is full; job " + jobId + " can be resumed later", e);
+        }
+    }
+
+    /**
+     * Runs a queued job, if this caller is the one to move it from PENDING to
+     * RUNNING; a job that was cancelled, or claimed by another runner or
+     * instance in the meantime, is left alone.
+     */
+    void run(Long jobId) {
+        if (!running.add(jobId)) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int claimed = QuarkusTransaction.requiringNew().call(() -> BatchJob.update(
+                "status = ?1, error = null, startedAt = coalesce(startedAt, ?2), updatedAt = ?2 "
+                    + "where id = ?3 and status = ?4",
+                BatchJob.JobStatus.RUNNING, now, jobId, BatchJob.JobStatus.PENDING));
+            if (claimed != 1) {
+                logger.info("Import job {} is no longer pending, not starting it", jobId);
+                return;
+            }
+            BatchJob job = QuarkusTransaction.requiringNew().call(() -> BatchJob.<BatchJob>findById(jobId));
+
+            boolean finished;
+            try (InputStream input = Files.newInputStream(Path.of(job.source))) {
+                finished = !cancelRequested.contains(jobId) && providerImportService.importProviders(input,
+                    ProviderImportService.Format.valueOf(job.sourceFormat), job.checkpoint,
+                    (rowsRead, imported, rejected) -> recordChunk(jobId, rowsRead, imported, rejected));
+            }
+            finish(jobId, finished ? BatchJob.JobStatus.COMPLETED : BatchJob.JobStatus.CANCELLED, null);
+        } catch (Exception e) {
+            logger.error("Import job {} failed", jobId, e);
+            finish(jobId, BatchJob.JobStatus.FAILED, e.getMessage());
+        } finally {
+            running.remove(jobId);
+            cancelRequested.remove(jobId);
+        }
+    }
+
+    /** Runs inside the chunk's transaction. */
+    private boolean recordChunk(Long jobId, long rowsRead, int imported, List<ImportReportDto.RowError> rejected) {
+        BatchJob job = BatchJob.findById(jobId);
+        for (ImportReportDto.RowError rejection : rejected) {
+            if (job.failed++ < maxReportedErrors) {
+                BatchJobError error = new BatchJobError();
+                error.job = job;
+                error.row = rejection.row;
+                error.line = rejection.line;
+                error.npi = rejection.npi;
+                error.error = rejection.error;
+                error.persist();
+            }
+        }
+        job.checkpoint = rowsRead;
+        job.processed = rowsRead;
+        job.updated += imported;
+        return !cancelRequested.contains(jobId);
+    }
+
+    private void finish(Long jobId, BatchJob.JobStatus status, String error) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            BatchJob job = BatchJob.findById(jobId);
+            job.status = status;
+            job.error = error;
+            if (status == BatchJob.JobStatus.FAILED) {
+                return;
+            }
+            job.finishedAt = LocalDateTime.now();
+            if (status == BatchJob.JobStatus.COMPLETED) {
+                job.total = job.processed;
+            }
+            deleteSource(job);
+            logger.info("Import job {} {}: {} rows read, {} imported, {} rejected",
+                jobId, status, job.processed, job.updated, job.failed);
+        });
+    }
+
+    private void deleteSource(BatchJob job) {
+        try {
+            Files.deleteIfExists(Path.of(job.source));
+        } catch (IOException e) {
+            logger.warn("Could not delete spooled import {}: {}", job.source, e.getMessage());
+        }
+    }
+
+    private static long copyCountingLines(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long lines = 0;
+        int last = '\n';
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+            last = buffer[read - 1];
+        }
+        return last == '\n' ? lines : lines + 1;
+    }
+}
@@ -0,0 +1,110 @@
+package com.agilemorph.service;
+
+import com.agilemorph.dto.LicenseExpiryForecastDto;
+import com.agilemorph.model.License;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.TypedQuery;
+import jakarta.transaction.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts upcoming license expiries by state and license type.
+ *
+ * The whole forecast is one grouped query: the WHERE clause is a range on
+ * {@code licenses.expiry_date}, which {@code idx_licenses_expiry_date}
+ * serves, and each horizon is a conditional SUM over the same rows. No
+ * provider or license entity is loaded.
+ */
+@ApplicationScoped
+public class LicenseExpiryForecastService {
+
+    public static final List<Integer> DEFAULT_HORIZONS = List.of(30, 60, 90);
+
+    static final int MAX_HORIZONS = 12;
+    static final int MAX_HORIZON_DAYS = 3650;
+
+    @Inject
+    Clock clock;
+
+    public LicenseExpiryForecastDto getForecast(List<Integer> horizons) {
+        return getForecast(horizons, LocalDate.now(clock));
+    }
+
+    @Transactional
+    public LicenseExpiryForecastDto getForecast(List<Integer> horizons, LocalDate asOf) {
+        List<Integer> sorted = validate(horizons);
+
+        StringBuilder jpql = new StringBuilder("SELECT l.state, l.licenseType");
+        for (int i = 0; i < sorted.size(); i++) {
+            jpql.append(", SUM(CASE WHEN l.expiryDate < :before").append(i).append(" THEN 1 ELSE 0 END)");
+        }
+        jpql.append(" FROM License l WHERE l.expiryDate >= :asOf AND l.expiryDate < :before")
+            .append(sorted.size() - 1)
+            .append(" GROUP BY l.state, l.licenseType ORDER BY l.state, l.licenseType");
+
+        TypedQuery<Object[]> query = License.getEntityManager().createQuery(jpql.toString(), Object[].class)
+            .setParameter("asOf", asOf);
+        for (int i = 0; i < sorted.size(); i++) {
+            // A license expiring on asOf + days is outside the horizon, as with License.isExpiringSoon
+            query.setParameter("before" + i, asOf.plusDays(sorted.get(i)));
+        }
+
+        LicenseExpiryForecastDto forecast = new LicenseExpiryForecastDto();
+        forecast.asOf = asOf;
+        forecast.horizons = sorted;
+        forecast.totals = new LinkedHashMap<>();
+        sorted.forEach(days -> forecast.totals.put(days, 0L));
+        forecast.buckets = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            LicenseExpiryForecastDto.Bucket bucket = new LicenseExpiryForecastDto.Bucket();
+            bucket.state = (String) row[0];
+            bucket.licenseType = (String) row[1];
+            bucket.expiringWithin = new LinkedHashMap<>();
+            for (int i = 0; i < sorted.size(); i++) {
+                long count = ((Number) row[i + 2]).longValue();
+                bucket.expiringWithin.put(sorted.get(i), count);
+                forecast.totals.merge(sorted.get(i), count, Long::sum);
+            }
+            forecast.buckets.add(bucket);
+        }
+        return forecast;
+    }
+
+    private static List<Integer> validate(List<Integer> horizons) {
+        if (horizons == null || horizons.isEmpty()) {
+            return DEFAULT_HORIZONS;
+        }
+        if (horizons.size() > MAX_HORIZONS) {
+            throw new IllegalArgumentException("At most " + MAX_HORIZONS + " horizons may be requested");
+        }
+        for (Integer days : horizons) {
+            if (days == null || days < 1 || days > MAX_HORIZON_DAYS) {
+                throw new IllegalArgumentException("Horizons must be between 1 and " + MAX_HORIZON_DAYS + " days");
+            }
+        }
+        return horizons.stream().distinct().sorted().toList();
+    }
+
+    /** Parses a comma-separated horizon list such as "30,60,90". */
+    public static List<Integer> parseHorizons(String horizons) {
+        if (horizons == null || horizons.isBlank()) {
+            return DEFAULT_HORIZONS;
+        }
+        List<Integer> parsed = new ArrayList<>();
+        for (String part : horizons.split(",")) {
+            try {
+                parsed.add(Integer.parseInt(part.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid horizon: " + part.trim());
+            }
+        }
+        return parsed;
+    }
+}
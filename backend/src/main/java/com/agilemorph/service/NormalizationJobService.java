@@ -0,0 +1,278 @@
+package com.agilemorph.service;
+
+import com.agilemorph.dto.BatchJobDto;
+import com.agilemorph.model.BatchJob;
+import com.agilemorph.model.Provider;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.NotFoundException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Normalizes provider names across the whole provider table. NPIs need no
+ * pass of their own: they are stored as numbers and always read back in
+ * canonical form.
+ *
+ * The table is walked in id order, one committed chunk at a time: each chunk
+ * streams header columns through a forward-only cursor, runs them through
+ * {@link ProviderNormalizer} and writes only the changed rows back with a
+ * single JDBC batch. Each write is guarded by the version the chunk read, so
+ * a provider edited in the meantime keeps the edit and is counted as failed,
+ * as is a provider whose names cannot be normalized.
+ *
+ * The job's checkpoint advances with every commit, so a failed job resumes
+ * from the last finished chunk. Every commit also touches the job's
+ * {@code updatedAt}, its heartbeat: at startup, pending jobs and running jobs
+ * whose heartbeat is older than {@code agilemorph.normalization.stale-after}
+ * are claimed and resumed, while jobs a live instance is running are left
+ * alone.
+ */
+@ApplicationScoped
+public class NormalizationJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NormalizationJobService.class);
+
+    private static final String UPDATE_PROVIDER =
+        "UPDATE providers SET first_name = ?, last_name = ?, middle_name = ?, "
+            + "updated_at = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    /** Jobs no live instance is working on: queued, or running with a stale heartbeat. */
+    private static final String ABANDONED =
+        "(status = ?4 or (status = ?5 and (updatedAt is null or updatedAt < ?6)))";
+
+    private static final String INSERT_AUDIT_LOG =
+        "INSERT INTO audit_logs (id, provider_id, action, details, timestamp, user_id) "
+            + "VALUES (nextval('audit_logs_seq'), ?, 'PROVIDER_NORMALIZED', ?, ?, 'normalization-job')";
+
+    @Inject
+    ManagedExecutor executor;
+
+    @ConfigProperty(name = "agilemorph.normalization.chunk-size", defaultValue = "500")
+    int chunkSize;
+
+    @ConfigProperty(name = "agilemorph.normalization.resume-on-startup", defaultValue = "true")
+    boolean resumeOnStartup;
+
+    @ConfigProperty(name = "agilemorph.normalization.stale-after", defaultValue = "5M")
+    Duration staleAfter;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!resumeOnStartup) {
+            return;
+        }
+        LocalDateTime staleBefore = LocalDateTime.now().minus(staleAfter);
+        List<Long> interrupted = QuarkusTransaction.requiringNew().call(() ->
+            BatchJob.<BatchJob>find("jobType = ?1 and status in ?2", Sort.by("id"),
+                    BatchJob.JobType.NORMALIZATION, List.of(BatchJob.JobStatus.PENDING, BatchJob.JobStatus.RUNNING))
+                .stream()
+                .map(job -> job.id)
+                .collect(Collectors.toList()));
+        for (Long jobId : interrupted) {
+            if (claim(jobId, ABANDONED, BatchJob.JobStatus.PENDING, BatchJob.JobStatus.RUNNING, staleBefore)) {
+                logger.info("Resuming normalization job {} left unfinished by the previous run", jobId);
+                launch(jobId);
+            }
+        }
+    }
+
+    public BatchJobDto startJob() {
+        Long jobId = QuarkusTransaction.requiringNew().call(() -> {
+            BatchJob job = new BatchJob();
+            job.jobType = BatchJob.JobType.NORMALIZATION;
+            job.status = BatchJob.JobStatus.RUNNING;
+            job.total = Provider.count();
+            job.startedAt = LocalDateTime.now();
+            job.updatedAt = job.startedAt;
+            job.persist();
+            return job.id;
+        });
+        return launch(jobId);
+    }
+
+    public BatchJobDto resumeJob(Long jobId) {
+        BatchJob.JobStatus status = getJob(jobId).status;
+        if (status != BatchJob.JobStatus.FAILED) {
+            throw new IllegalStateException("Job " + jobId + " is " + status + " and cannot be resumed");
+        }
+        // Only one of two concurrent resumes gets to start a runner on the checkpoint
+        if (!claim(jobId, "status = ?4", BatchJob.JobStatus.FAILED)) {
+            throw new IllegalStateException("Job " + jobId + " is already being resumed");
+        }
+        return launch(jobId);
+    }
+
+    @Transactional
+    public BatchJobDto getJob(Long jobId) {
+        BatchJob job = BatchJob.findById(jobId);
+        if (job == null || job.jobType != BatchJob.JobType.NORMALIZATION) {
+            throw new NotFoundException("Normalization job not found with id: " + jobId);
+        }
+        return BatchJobDto.from(job);
+    }
+
+    /**
+     * Moves the job to RUNNING in one conditional update, if it still matches
+     * the given condition, whose parameters are numbered from 4.
+     *
+     * @return whether this caller claimed the job
+     */
+    private boolean claim(Long jobId, String condition, Object... params) {
+        Object[] bound = new Object[3 + params.length];
+        bound[0] = BatchJob.JobStatus.RUNNING;
+        bound[1] = LocalDateTime.now();
+        bound[2] = jobId;
+        System.arraycopy(params, 0, bound, 3, params.length);
+        return QuarkusTransaction.requiringNew().call(() -> BatchJob.update(
+            "status = ?1, error = null, startedAt = coalesce(startedAt, ?2), updatedAt = ?2 "
+                + "where id = ?3 and " + condition,
+            bound)) == 1;
+    }
+
+    /** Runs a job already claimed as RUNNING. */
+    private BatchJobDto launch(Long jobId) {
+        BatchJobDto started = getJob(jobId);
+        executor.runAsync(() -> run(jobId));
+        return started;
+    }
+
+    void run(Long jobId) {
+        try {
+            while (QuarkusTransaction.requiringNew().call(() -> processChunk(jobId)) > 0) {
+                // keep going until a chunk comes back empty
+            }
+            QuarkusTransaction.requiringNew().run(() -> {
+                BatchJob job = BatchJob.findById(jobId);
+                job.status = BatchJob.JobStatus.COMPLETED;
+                job.finishedAt = LocalDateTime.now();
+                logger.info("Normalization job {} completed: {} processed, {} updated",
+                    jobId, job.processed, job.updated);
+            });
+        } catch (Exception e) {
+            logger.error("Normalization job {} failed", jobId, e);
+            QuarkusTransaction.requiringNew().run(() -> {
+                BatchJob job = BatchJob.findById(jobId);
+                job.status = BatchJob.JobStatus.FAILED;
+                job.error = e.getMessage();
+            });
+        }
+    }
+
+    /**
+     * Normalizes the next chunk after the job's checkpoint in the current
+     * transaction and advances the checkpoint.
+     *
+     * @return number of providers read
+     */
+    int processChunk(Long jobId) {
+        BatchJob job = BatchJob.findById(jobId);
+        Session session = Provider.getEntityManager().unwrap(Session.class);
+
+        List<Object[]> changes = new ArrayList<>();
+        long lastId = job.checkpoint;
+        int read = 0;
+        int failed = 0;
+        try (ScrollableResults<Object[]> rows = session.createQuery(
+                "SELECT p.id, p.firstName, p.lastName, p.middleName, p.version FROM Provider p "
+                    + "WHERE p.id > :after ORDER BY p.id", Object[].class)
+                .setParameter("after", lastId)
+                .setMaxResults(chunkSize)
+                .setFetchSize(chunkSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                Object[] row = rows.get();
+                lastId = (Long) row[0];
+                read++;
+
+                String firstName = (String) row[1];
+                String lastName = (String) row[2];
+                String middleName = (String) row[3];
+                String normalizedFirst;
+                String normalizedLast;
+                String normalizedMiddle;
+                try {
+                    normalizedFirst = ProviderNormalizer.normalizeName(firstName);
+                    normalizedLast = ProviderNormalizer.normalizeName(lastName);
+                    normalizedMiddle = ProviderNormalizer.normalizeName(middleName);
+                    if (normalizedFirst == null || normalizedFirst.isEmpty()
+                            || normalizedLast == null || normalizedLast.isEmpty()) {
+                        throw new IllegalArgumentException("first or last name is blank");
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Normalization job {} skipped provider {}: {}", jobId, lastId, e.getMessage());
+                    failed++;
+                    continue;
+                }
+
+                // The normalizers hand back the same instance when nothing changed
+                if (normalizedFirst != firstName || normalizedLast != lastName || normalizedMiddle != middleName) {
+                    changes.add(new Object[] {lastId, normalizedFirst, normalizedLast, normalizedMiddle, row[4]});
+                }
+            }
+        }
+
+        int updated = 0;
+        if (!changes.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            updated = session.doReturningWork(connection -> {
+                int written = 0;
+                try (PreparedStatement update = connection.prepareStatement(UPDATE_PROVIDER);
+                     PreparedStatement audit = connection.prepareStatement(INSERT_AUDIT_LOG)) {
+                    for (Object[] change : changes) {
+                        update.setString(1, (String) change[1]);
+                        update.setString(2, (String) change[2]);
+                        update.setString(3, (String) change[3]);
+                        update.setTimestamp(4, now);
+                        update.setLong(5, (Long) change[0]);
+                        update.setLong(6, (Long) change[4]);
+                        update.addBatch();
+                    }
+                    int[] counts = update.executeBatch();
+                    for (int i = 0; i < counts.length; i++) {
+                        Long providerId = (Long) changes.get(i)[0];
+                        // Edited since the chunk read it; the edit wins
+                        if (counts[i] == 0) {
+                            logger.warn("Normalization job {} skipped provider {}: modified concurrently",
+                                jobId, providerId);
+                            continue;
+                        }
+                        written++;
+                        audit.setLong(1, providerId);
+                        audit.setString(2, "Provider names normalized by batch job");
+                        audit.setTimestamp(3, now);
+                        audit.addBatch();
+                    }
+                    if (written > 0) {
+                        audit.executeBatch();
+                    }
+                }
+                return written;
+            });
+        }
+
+        job.checkpoint = lastId;
+        job.processed += read;
+        job.updated += updated;
+        job.failed += failed + changes.size() - updated;
+        return read;
+    }
+}
@@ -0,0 +1,391 @@
+package com.agilemorph.service;
+
+import com.agilemorph.dto.ImportReportDto;
+import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.model.Provider;
+import com.agilemorph.validation.Npi;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams provider rosters (CSV with a header row, or newline-delimited JSON)
+ * into the database without holding the file in memory.
+ *
+ * Rows are read one at a time with Jackson's streaming parser, normalized and
+ * validated, and written in chunks, each in its own transaction. On
+ * PostgreSQL, chunks of header-only rows are loaded with COPY. A chunk that
+ * still fails to commit is retried row by row so the failure is pinned to
+ * the offending rows. Every rejected row ends up in the returned report.
+ *
+ * Callers that need to survive a restart pass a {@link ChunkListener}: it
+ * sees each chunk inside its transaction, so progress recorded there is
+ * exactly as durable as the rows, and a later run can skip what it covered.
+ */
+@ApplicationScoped
+public class ProviderImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderImportService.class);
+
+    private static final String AUDIT_PREFIX = "Provider imported with NPI: ";
+
+    private static final String COPY_PROVIDERS =
+        "COPY providers (npi, first_name, last_name, middle_name, email, phone, date_of_birth, "
+            + "specialty, taxonomy_code, verification_status) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INSERT_COPIED_AUDIT_LOGS =
+        "INSERT INTO audit_logs (provider_id, action, details, timestamp) "
+            + "SELECT id, 'PROVIDER_CREATED', '" + AUDIT_PREFIX + "' || LPAD(npi::text, 10, '0'), CURRENT_TIMESTAMP "
+            + "FROM providers WHERE npi = ANY(?)";
+
+    public enum Format {
+        CSV, NDJSON,
+        /** A JSON array of providers, as sent to the bulk endpoint; elements are still read one at a time. */
+        JSON;
+
+        public static Format fromMediaType(String mediaType) {
+            String type = mediaType == null ? "" : mediaType.toLowerCase(Locale.ROOT);
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+            if (type.startsWith("application/x-ndjson")) {
+                return NDJSON;
+            }
+            if (type.startsWith("application/json")) {
+                return JSON;
+            }
+            throw new IllegalArgumentException("Unsupported import media type: " + mediaType);
+        }
+    }
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Validator validator;
+
+    @Inject
+    ProviderService providerService;
+
+    @ConfigProperty(name = "agilemorph.import.chunk-size", defaultValue = "500")
+    int chunkSize;
+
+    @ConfigProperty(name = "agilemorph.import.max-reported-errors", defaultValue = "1000")
+    int maxReportedErrors;
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    private final CsvMapper csvMapper = CsvMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+        .enable(CsvParser.Feature.TRIM_SPACES)
+        .build();
+
+    private record Row(long row, long line, ProviderDto provider) {
+    }
+
+    /**
+     * Receives the outcome of each chunk. It is called inside the chunk's
+     * transaction, so anything it writes commits or rolls back together with
+     * the chunk's providers.
+     */
+    @FunctionalInterface
+    public interface ChunkListener {
+
+        /**
+         * @param rowsRead rows consumed from the input so far, skipped rows included
+         * @param imported providers written by this chunk
+         * @param rejected rows rejected since the previous chunk, in input order
+         * @return false to stop reading after this chunk
+         */
+        boolean chunkCommitted(long rowsRead, int imported, List<ImportReportDto.RowError> rejected);
+    }
+
+    public ImportReportDto importProviders(InputStream input, Format format) throws IOException {
+        ImportReportDto report = new ImportReportDto();
+        importProviders(input, format, 0, (rowsRead, imported, rejected) -> {
+            report.totalRows = rowsRead;
+            report.imported += imported;
+            for (ImportReportDto.RowError error : rejected) {
+                report.failed++;
+                if (report.errors.size() < maxReportedErrors) {
+                    report.errors.add(error);
+                } else {
+                    report.errorsTruncated = true;
+                }
+            }
+            return true;
+        });
+
+        logger.info("Imported {} of {} provider rows ({} rejected)", report.imported, report.totalRows, report.failed);
+        return report;
+    }
+
+    /**
+     * Imports the input after its first {@code skipRows} rows, handing every
+     * committed chunk to the listener.
+     *
+     * @return true if the input was read to the end, false if the listener stopped it
+     */
+    public boolean importProviders(InputStream input, Format format, long skipRows, ChunkListener listener)
+            throws IOException {
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        List<ImportReportDto.RowError> rejected = new ArrayList<>();
+        Set<String> chunkNpis = new HashSet<>();
+        long rowsRead = 0;
+        long reported = skipRows;
+        long lastFailureOffset = -1;
+
+        try (MappingIterator<ProviderDto> rows = reader(format).readValues(input)) {
+            while (true) {
+                long line = rows.getCurrentLocation().getLineNr();
+                ProviderDto provider;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    line = rows.getCurrentLocation().getLineNr();
+                    provider = rows.nextValue();
+                } catch (JsonProcessingException | RuntimeJsonMappingException e) {
+                    // The iterator skips past a row it cannot map; if it made no progress the input is unreadable
+                    JsonLocation location = rows.getCurrentLocation();
+                    if (location.getCharOffset() == lastFailureOffset) {
+                        throw new IllegalArgumentException("Unreadable input at line " + location.getLineNr(), e);
+                    }
+                    lastFailureOffset = location.getCharOffset();
+                    if (++rowsRead > skipRows) {
+                        rejected.add(new ImportReportDto.RowError(rowsRead, line, null, "Malformed row: " + originalMessage(e)));
+                    }
+                    continue;
+                }
+
+                if (++rowsRead <= skipRows) {
+                    continue;
+                }
+                normalize(provider);
+                String error = validate(provider);
+                if (error == null && !chunkNpis.add(provider.npi)) {
+                    error = "Duplicate NPI within import";
+                }
+                if (error != null) {
+                    rejected.add(new ImportReportDto.RowError(rowsRead, line, provider.npi, error));
+                } else {
+                    chunk.add(new Row(rowsRead, line, provider));
+                }
+
+                if (chunk.size() >= chunkSize || rejected.size() >= chunkSize) {
+                    boolean proceed = flush(chunk, rejected, rowsRead, listener);
+                    reported = rowsRead;
+                    chunk.clear();
+                    chunkNpis.clear();
+                    rejected.clear();
+                    if (!proceed) {
+                        return false;
+                    }
+                }
+            }
+        }
+        if (rowsRead > reported) {
+            return flush(chunk, rejected, rowsRead, listener);
+        }
+        return true;
+    }
+
+    private ObjectReader reader(Format format) {
+        if (format == Format.CSV) {
+            return csvMapper.readerFor(ProviderDto.class).with(CsvSchema.emptySchema().withHeader());
+        }
+        return objectMapper.readerFor(ProviderDto.class);
+    }
+
+    private void normalize(ProviderDto provider) {
+        provider.id = null;
+        provider.version = null;
+        provider.npi = ProviderNormalizer.normalizeNpi(provider.npi);
+        provider.firstName = ProviderNormalizer.normalizeName(provider.firstName);
+        provider.lastName = ProviderNormalizer.normalizeName(provider.lastName);
+        provider.middleName = ProviderNormalizer.normalizeName(provider.middleName);
+    }
+
+    private String validate(ProviderDto provider) {
+        Set<ConstraintViolation<ProviderDto>> violations = validator.validate(provider);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining("; "));
+    }
+
+    private boolean flush(List<Row> chunk, List<ImportReportDto.RowError> rejected, long rowsRead,
+                          ChunkListener listener) {
+        List<Row> existing = new ArrayList<>();
+        try {
+            return QuarkusTransaction.requiringNew().call(() -> {
+                int imported = writeChunk(chunk, existing);
+                return listener.chunkCommitted(rowsRead, imported, withExisting(rejected, existing));
+            });
+        } catch (Exception e) {
+            if (chunk.isEmpty()) {
+                throw e;
+            }
+            logger.warn("Import chunk of {} rows failed, retrying row by row: {}", chunk.size(), originalMessage(e));
+        }
+
+        int imported = 0;
+        List<ImportReportDto.RowError> failed = new ArrayList<>(rejected);
+        for (Row row : chunk) {
+            if (existing.contains(row)) {
+                continue;
+            }
+            try {
+                QuarkusTransaction.requiringNew().run(() -> providerService.persistProvider(row.provider(), AUDIT_PREFIX));
+                imported++;
+            } catch (Exception rowError) {
+                failed.add(new ImportReportDto.RowError(row.row(), row.line(), row.provider().npi, originalMessage(rowError)));
+            }
+        }
+        int retried = imported;
+        return QuarkusTransaction.requiringNew().call(
+            () -> listener.chunkCommitted(rowsRead, retried, withExisting(failed, existing)));
+    }
+
+    private static List<ImportReportDto.RowError> withExisting(List<ImportReportDto.RowError> rejected, List<Row> existing) {
+        List<ImportReportDto.RowError> errors = new ArrayList<>(rejected);
+        for (Row row : existing) {
+            errors.add(new ImportReportDto.RowError(row.row(), row.line(), row.provider().npi,
+                "Provider with this NPI already exists"));
+        }
+        errors.sort(Comparator.comparingLong(error -> error.row));
+        return errors;
+    }
+
+    private int writeChunk(List<Row> chunk, List<Row> existing) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        Set<String> stored = new HashSet<>(Provider.getEntityManager()
+            .createQuery("SELECT p.npi FROM Provider p WHERE p.npi IN :npis", String.class)
+            .setParameter("npis", chunk.stream().map(row -> row.provider().npi).collect(Collectors.toList()))
+            .getResultList());
+
+        List<ProviderDto> accepted = new ArrayList<>(chunk.size());
+        boolean headerOnly = true;
+        for (Row row : chunk) {
+            if (stored.contains(row.provider().npi)) {
+                existing.add(row);
+                continue;
+            }
+            accepted.add(row.provider());
+            headerOnly &= isEmpty(row.provider().licenses) && isEmpty(row.provider().practiceLocations);
+        }
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        if (headerOnly && "postgresql".equals(dbKind)) {
+            copy(accepted);
+        } else {
+            for (ProviderDto provider : accepted) {
+                providerService.persistProvider(provider, AUDIT_PREFIX);
+            }
+        }
+        return accepted.size();
+    }
+
+    private void copy(List<ProviderDto> providers) {
+        StringBuilder data = new StringBuilder(providers.size() * 160);
+        Long[] npis = new Long[providers.size()];
+        for (int i = 0; i < providers.size(); i++) {
+            ProviderDto provider = providers.get(i);
+            npis[i] = Npi.parseDigits(provider.npi);
+            data.append(npis[i]).append(',');
+            appendCsv(data, provider.firstName).append(',');
+            appendCsv(data, provider.lastName).append(',');
+            appendCsv(data, provider.middleName).append(',');
+            appendCsv(data, provider.email).append(',');
+            appendCsv(data, provider.phone).append(',');
+            data.append(provider.dateOfBirth).append(',');
+            appendCsv(data, provider.specialty).append(',');
+            appendCsv(data, provider.taxonomyCode).append(',');
+            data.append(provider.verificationStatus != null
+                ? provider.verificationStatus : Provider.VerificationStatus.PENDING).append('\n');
+        }
+
+        Provider.getEntityManager().unwrap(Session.class).doWork(connection -> {
+            try {
+                connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_PROVIDERS, new StringReader(data.toString()));
+            } catch (IOException e) {
+                throw new IllegalStateException("COPY into providers failed", e);
+            }
+            try (PreparedStatement audit = connection.prepareStatement(INSERT_COPIED_AUDIT_LOGS)) {
+                audit.setArray(1, connection.createArrayOf("bigint", npis));
+                audit.executeUpdate();
+            }
+        });
+    }
+
+    /** Appends a field in COPY's CSV format: unquoted empty for NULL, quoted otherwise. */
+    private static StringBuilder appendCsv(StringBuilder data, String value) {
+        if (value == null) {
+            return data;
+        }
+        data.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                data.append('"');
+            }
+            data.append(c);
+        }
+        return data.append('"');
+    }
+
+    private static boolean isEmpty(List<?> list) {
+        return list == null || list.isEmpty();
+    }
+
+    private static String originalMessage(Throwable e) {
+        if (e instanceof JsonProcessingException json) {
+            return json.getOriginalMessage();
+        }
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,92 @@
+package com.agilemorph.service;
+
+/**
+ * Hand-written replacements for the regex-based name and NPI normalization.
+ *
+ * Both methods scan once and return the input instance untouched when it is
+ * already normalized, which is the common case when sweeping a clean roster;
+ * only dirty values allocate a new string.
+ */
+public final class ProviderNormalizer {
+
+    private ProviderNormalizer() {
+    }
+
+    /**
+     * Trims and collapses runs of whitespace to a single space, like
+     * {@code name.trim().replaceAll("\\s+", " ")} except that, as with trim(),
+     * every control character counts as whitespace.
+     */
+    public static String normalizeName(String name) {
+        if (name == null) {
+            return null;
+        }
+        int length = name.length();
+        if (isNormalizedName(name, length)) {
+            return name;
+        }
+        StringBuilder normalized = new StringBuilder(length);
+        boolean pendingSpace = false;
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (c <= ' ') {
+                pendingSpace = normalized.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Strips every non-digit, equivalent to {@code npi.replaceAll("\\D", "")}.
+     */
+    public static String normalizeNpi(String npi) {
+        if (npi == null) {
+            return null;
+        }
+        int length = npi.length();
+        int digits = 0;
+        for (int i = 0; i < length; i++) {
+            if (isDigit(npi.charAt(i))) {
+                digits++;
+            }
+        }
+        if (digits == length) {
+            return npi;
+        }
+        char[] normalized = new char[digits];
+        int next = 0;
+        for (int i = 0; i < length; i++) {
+            char c = npi.charAt(i);
+            if (isDigit(c)) {
+                normalized[next++] = c;
+            }
+        }
+        return new String(normalized);
+    }
+
+    private static boolean isNormalizedName(String name, int length) {
+        if (length == 0) {
+            return true;
+        }
+        if (name.charAt(0) <= ' ' || name.charAt(length - 1) <= ' ') {
+            return false;
+        }
+        for (int i = 1; i < length - 1; i++) {
+            char c = name.charAt(i);
+            if (c <= ' ' && (c != ' ' || name.charAt(i + 1) <= ' ')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
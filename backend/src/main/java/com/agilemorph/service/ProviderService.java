@@ -1,87 +1,496 @@
 package com.agilemorph.service;
 
 import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.dto.ProviderSummaryDto;
+import com.agilemorph.dto.ProviderVersion;
+import com.agilemorph.dto.ProviderView;
 import com.agilemorph.model.Provider;
 import com.agilemorph.model.License;
 import com.agilemorph.model.PracticeLocation;
 import com.agilemorph.model.RuleEvaluation;
+import com.agilemorph.model.RuleFinding;
+import com.agilemorph.validation.Npi;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.panache.common.Page;
+import io.quarkus.panache.common.Sort;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
+import org.hibernate.Hibernate;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class ProviderService {
     
+    @Inject
+    ObjectMapper objectMapper;
+    
+    /** Resolves each license's expiring-soon window from the license policy decision table. */
+    @Inject
+    RuleEngineService ruleEngineService;
+    
+    @Inject
+    Clock clock;
+    
+    @Inject
+    MeterRegistry meterRegistry;
+    
+    // Concurrent reads of the same hot provider share one load
+    SingleFlight<ProviderRead, ProviderDto> readsById;
+    SingleFlight<ProviderRead, ProviderDto> readsByNpi;
+    
+    // version is the ETag the caller read before loading, or null when it will send none
+    record ProviderRead(Object key, ProviderView view, LocalDate asOf, String version) {}
+    
+    @PostConstruct
+    void init() {
+        readsById = new SingleFlight<>("provider-by-id", meterRegistry);
+        readsByNpi = new SingleFlight<>("provider-by-npi", meterRegistry);
+    }
+    
     @Transactional
     public ProviderDto createProvider(ProviderDto providerDto) {
+        return mapEntityToDto(persistProvider(providerDto, "Provider created with NPI: "));
+    }
+    
+    /**
+     * Inserts a provider and its audit row without mapping anything back;
+     * shared by the create endpoints and the streaming importer.
+     */
+    Provider persistProvider(ProviderDto providerDto, String auditPrefix) {
+        requireValidNpi(providerDto.npi);
         Provider provider = new Provider();
         mapDtoToEntity(providerDto, provider);
         
         provider.persist();
         
         // Add audit log
-        provider.addAuditLog("PROVIDER_CREATED", "Provider created with NPI: " + provider.npi);
+        provider.addAuditLog("PROVIDER_CREATED", auditPrefix + provider.npi);
         
-        return mapEntityToDto(provider);
+        return provider;
     }
     
     @Transactional
     public List<ProviderDto> createProvidersBulk(List<ProviderDto> providerDtos) {
+        // Fail the whole batch before anything is written
+        providerDtos.forEach(providerDto -> requireValidNpi(providerDto.npi));
         return providerDtos.stream()
                 .map(this::createProvider)
                 .collect(Collectors.toList());
     }
     
     public ProviderDto getProvider(Long id) {
-        Provider provider = Provider.findById(id);
-        if (provider == null) {
-            throw new NotFoundException("Provider not found with id: " + id);
+        return getProvider(id, ProviderView.FULL);
+    }
+    
+    public ProviderDto getProvider(Long id, ProviderView view) {
+        return getProvider(id, view, today());
+    }
+    
+    /**
+     * Maps the provider with license expiry flags computed as of the given
+     * date rather than today, so callers can look ahead. Concurrent calls
+     * with the same arguments share one load and the same DTO, which callers
+     * must therefore not modify.
+     */
+    public ProviderDto getProvider(Long id, ProviderView view, LocalDate asOf) {
+        return loadById(new ProviderRead(id, view, asOf, null));
+    }
+    
+    /**
+     * Maps the provider for a response tagged with the given version, read
+     * first with {@link #getProviderVersion}. Only calls that read the same
+     * version share a load, so a caller that saw a change is never handed a
+     * load that started before the change committed: the body is never older
+     * than its tag.
+     */
+    public ProviderDto getProvider(Long id, ProviderView view, ProviderVersion version) {
+        return loadById(new ProviderRead(id, view, today(), version.etag));
+    }
+    
+    private ProviderDto loadById(ProviderRead read) {
+        return readsById.execute(read, () -> {
+            Provider provider = Provider.findById(read.key());
+            if (provider == null) {
+                throw new NotFoundException("Provider not found with id: " + read.key());
+            }
+            return mapEntityToDto(provider, read.view(), read.asOf());
+        });
+    }
+    
+    /**
+     * Loads the providers with ids in [fromId, toId] as rules see them, in
+     * three queries however many there are: the providers, then their
+     * licenses and their practice locations fetched into the same
+     * persistence context. License flags are computed as of asOf.
+     */
+    @Transactional
+    public List<ProviderDto> getProvidersForEvaluation(long fromId, long toId, LocalDate asOf) {
+        List<Provider> providers = Provider.list("id between ?1 and ?2", Sort.by("id"), fromId, toId);
+        if (!providers.isEmpty()) {
+            EntityManager em = Provider.getEntityManager();
+            em.createQuery("SELECT DISTINCT p FROM Provider p LEFT JOIN FETCH p.licenses "
+                    + "WHERE p.id BETWEEN :fromId AND :toId", Provider.class)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .getResultList();
+            em.createQuery("SELECT DISTINCT p FROM Provider p LEFT JOIN FETCH p.practiceLocations "
+                    + "WHERE p.id BETWEEN :fromId AND :toId", Provider.class)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .getResultList();
         }
-        return mapEntityToDto(provider);
+        return providers.stream()
+                .map(provider -> mapEntityToDto(provider, ProviderView.STANDARD, asOf))
+                .collect(Collectors.toList());
     }
     
     public ProviderDto getProviderByNpi(String npi) {
-        Provider provider = Provider.find("npi", npi).firstResult();
-        if (provider == null) {
+        return getProviderByNpi(npi, ProviderView.FULL);
+    }
+    
+    /** Concurrent calls with the same arguments share one load, as with {@link #getProvider}. */
+    public ProviderDto getProviderByNpi(String npi, ProviderView view) {
+        return loadByNpi(new ProviderRead(npi, view, today(), null));
+    }
+    
+    /**
+     * Maps the provider for a response tagged with the given version, sharing
+     * loads only with calls that read the same version, as with
+     * {@link #getProvider(Long, ProviderView, ProviderVersion)}.
+     */
+    public ProviderDto getProviderByNpi(String npi, ProviderView view, ProviderVersion version) {
+        return loadByNpi(new ProviderRead(npi, view, today(), version.etag));
+    }
+    
+    private ProviderDto loadByNpi(ProviderRead read) {
+        String npi = (String) read.key();
+        return readsByNpi.execute(read, () -> {
+            Provider provider = Npi.parseDigits(npi) < 0 ? null : Provider.find("npi", npi).firstResult();
+            if (provider == null) {
+                throw new NotFoundException("Provider not found with NPI: " + npi);
+            }
+            return mapEntityToDto(provider, read.view(), read.asOf());
+        });
+    }
+    
+    /**
+     * Reads the validators for this view of the provider with projection
+     * queries: the provider's version and timestamps and, for the full view,
+     * a count of its findings. Nothing is loaded or mapped.
+     */
+    public ProviderVersion getProviderVersion(Long id, ProviderView view) {
+        List<Object[]> rows = Provider.getEntityManager().createQuery(
+                "SELECT p.id, p.version, p.createdAt, p.updatedAt FROM Provider p WHERE p.id = :id", Object[].class)
+            .setParameter("id", id)
+            .getResultList();
+        if (rows.isEmpty()) {
+            throw new NotFoundException("Provider not found with id: " + id);
+        }
+        return versionOf(rows.get(0), view);
+    }
+    
+    public ProviderVersion getProviderVersionByNpi(String npi, ProviderView view) {
+        List<Object[]> rows = Npi.parseDigits(npi) < 0 ? List.of() : Provider.getEntityManager().createQuery(
+                "SELECT p.id, p.version, p.createdAt, p.updatedAt FROM Provider p WHERE p.npi = :npi", Object[].class)
+            .setParameter("npi", npi)
+            .getResultList();
+        if (rows.isEmpty()) {
             throw new NotFoundException("Provider not found with NPI: " + npi);
         }
-        return mapEntityToDto(provider);
+        return versionOf(rows.get(0), view);
+    }
+    
+    private ProviderVersion versionOf(Object[] row, ProviderView view) {
+        ProviderVersion version = new ProviderVersion();
+        version.id = (Long) row[0];
+        LocalDateTime changedAt = row[3] != null ? (LocalDateTime) row[3] : (LocalDateTime) row[2];
+        Instant lastModified = changedAt.atZone(ZoneId.systemDefault()).toInstant();
+        StringBuilder etag = new StringBuilder()
+            .append(version.id).append('-').append(row[1]).append('-').append(view.name().toLowerCase(Locale.ROOT));
+        
+        if (view != ProviderView.SUMMARY) {
+            // License expiry flags are computed for today, so this view can change at midnight
+            LocalDate asOf = today();
+            etag.append('-').append(asOf);
+            Instant startOfDay = asOf.atStartOfDay(clock.getZone()).toInstant();
+            if (startOfDay.isAfter(lastModified)) {
+                lastModified = startOfDay;
+            }
+        }
+        if (view == ProviderView.FULL) {
+            // Every evaluation stamps the findings it keeps, so a count and the latest stamp cover them
+            Object[] findings = Provider.getEntityManager().createQuery(
+                    "SELECT count(f), max(f.evaluatedAt) FROM RuleFinding f WHERE f.provider.id = :id", Object[].class)
+                .setParameter("id", version.id)
+                .getSingleResult();
+            etag.append('-').append(findings[0]);
+            if (findings[1] != null) {
+                Instant evaluatedAt = ((LocalDateTime) findings[1]).atZone(ZoneId.systemDefault()).toInstant();
+                etag.append('-').append(evaluatedAt.toEpochMilli());
+                if (evaluatedAt.isAfter(lastModified)) {
+                    lastModified = evaluatedAt;
+                }
+            }
+        }
+        
+        version.etag = etag.toString();
+        version.lastModified = lastModified.truncatedTo(ChronoUnit.SECONDS);
+        return version;
     }
     
     public List<ProviderDto> getAllProviders() {
+        return getAllProviders(ProviderView.FULL);
+    }
+    
+    public List<ProviderDto> getAllProviders(ProviderView view) {
         List<Provider> providers = Provider.listAll();
+        LocalDate asOf = today();
         return providers.stream()
-                .map(this::mapEntityToDto)
+                .map(provider -> mapEntityToDto(provider, view, asOf))
                 .collect(Collectors.toList());
     }
     
     public List<ProviderDto> getProvidersByStatus(Provider.VerificationStatus status) {
-        List<Provider> providers = Provider.find("verificationStatus", status).list();
+        return getProvidersByStatus(status, ProviderView.FULL);
+    }
+    
+    public List<ProviderDto> getProvidersByStatus(Provider.VerificationStatus status, ProviderView view) {
+        List<Provider> providers = Provider.find("verificationStatus", Sort.by("id"), status).list();
+        LocalDate asOf = today();
         return providers.stream()
-                .map(this::mapEntityToDto)
+                .map(provider -> mapEntityToDto(provider, view, asOf))
                 .collect(Collectors.toList());
     }
     
+    // Summary reads select only header columns; no entity is managed and no
+    // collection is initialized
+    
+    public ProviderSummaryDto getProviderSummary(Long id) {
+        ProviderSummaryDto summary = Provider.find("id", id)
+                .project(ProviderSummaryDto.class)
+                .firstResult();
+        if (summary == null) {
+            throw new NotFoundException("Provider not found with id: " + id);
+        }
+        return summary;
+    }
+    
+    public ProviderSummaryDto getProviderSummaryByNpi(String npi) {
+        if (Npi.parseDigits(npi) < 0) {
+            throw new NotFoundException("Provider not found with NPI: " + npi);
+        }
+        ProviderSummaryDto summary = Provider.find("npi", npi)
+                .project(ProviderSummaryDto.class)
+                .firstResult();
+        if (summary == null) {
+            throw new NotFoundException("Provider not found with NPI: " + npi);
+        }
+        return summary;
+    }
+    
+    public List<ProviderSummaryDto> getAllProviderSummaries() {
+        return Provider.findAll(Sort.by("id"))
+                .project(ProviderSummaryDto.class)
+                .list();
+    }
+    
+    public List<ProviderSummaryDto> getProviderSummariesByStatus(Provider.VerificationStatus status) {
+        return Provider.find("verificationStatus", Sort.by("id"), status)
+                .project(ProviderSummaryDto.class)
+                .list();
+    }
+    
+    public List<ProviderDto.RuleEvaluationDto> getRuleEvaluationHistory(Long providerId, int page, int size) {
+        if (Provider.count("id", providerId) == 0) {
+            throw new NotFoundException("Provider not found with id: " + providerId);
+        }
+        List<RuleEvaluation> evaluations = RuleEvaluation.find("provider.id", 
+                Sort.descending("evaluatedAt", "id"), providerId)
+                .page(Page.of(page, size))
+                .list();
+        return evaluations.stream()
+                .map(this::mapRuleEvaluationToDto)
+                .collect(Collectors.toList());
+    }
+    
+    public long countRuleEvaluationHistory(Long providerId) {
+        return RuleEvaluation.count("provider.id", providerId);
+    }
+    
     @Transactional
     public ProviderDto updateProvider(Long id, ProviderDto providerDto) {
+        requireValidNpi(providerDto.npi);
         Provider provider = Provider.findById(id);
         if (provider == null) {
             throw new NotFoundException("Provider not found with id: " + id);
         }
         
+        // Reject stale writes up front; concurrent ones are caught by @Version at flush
+        if (providerDto.version != null && !providerDto.version.equals(provider.version)) {
+            throw new OptimisticLockException("Provider " + id + " was modified concurrently (expected version "
+                + providerDto.version + ", found " + provider.version + ")");
+        }
+        
         String oldNpi = provider.npi;
-        mapDtoToEntity(providerDto, provider);
+        if (!mapDtoToEntity(providerDto, provider)) {
+            // Nothing differs: no UPDATE, no new version, no audit row
+            return mapEntityToDto(provider);
+        }
+        
+        // Touch the row so child-only changes still bump the provider version
+        provider.updatedAt = LocalDateTime.now(clock);
         
         // Add audit log
         provider.addAuditLog("PROVIDER_UPDATED", 
             "Provider updated. Old NPI: " + oldNpi + ", New NPI: " + provider.npi);
         
+        // Flush here so a lost race surfaces as an OptimisticLockException to the caller
+        Provider.getEntityManager().flush();
+        
         return mapEntityToDto(provider);
     }
     
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) to a provider. Only members present
+     * in the patch are assigned, and with dynamic updates only the columns that
+     * actually change are written. Arrays replace the collection and are
+     * reconciled by natural key as in {@link #updateProvider}.
+     */
+    @Transactional
+    public ProviderDto patchProvider(Long id, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+        JsonNode npi = patch.get("npi");
+        if (npi != null && npi.isTextual()) {
+            requireValidNpi(npi.textValue());
+        }
+        Provider provider = Provider.findById(id);
+        if (provider == null) {
+            throw new NotFoundException("Provider not found with id: " + id);
+        }
+        
+        JsonNode version = patch.get("version");
+        if (version != null && !version.isNull() && version.asLong() != provider.version) {
+            throw new OptimisticLockException("Provider " + id + " was modified concurrently (expected version "
+                + version.asLong() + ", found " + provider.version + ")");
+        }
+        
+        String oldNpi = provider.npi;
+        List<String> patched = new ArrayList<>();
+        boolean childrenChanged = false;
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            patched.add(field.getKey());
+            switch (field.getKey()) {
+                case "id", "version" -> { }
+                case "npi" -> provider.npi = requiredText(field.getKey(), value);
+                case "firstName" -> provider.firstName = requiredText(field.getKey(), value);
+                case "lastName" -> provider.lastName = requiredText(field.getKey(), value);
+                case "middleName" -> provider.middleName = optionalText(value);
+                case "email" -> provider.email = optionalText(value);
+                case "phone" -> provider.phone = optionalText(value);
+                case "specialty" -> provider.specialty = optionalText(value);
+                case "taxonomyCode" -> provider.taxonomyCode = optionalText(value);
+                case "dateOfBirth" -> provider.dateOfBirth = required(field.getKey(), value, LocalDate.class);
+                case "verificationStatus" -> provider.verificationStatus =
+                    required(field.getKey(), value, Provider.VerificationStatus.class);
+                case "licenses" -> childrenChanged |= reconcileLicenses(provider, value.isNull() ? List.of()
+                    : objectMapper.convertValue(value, new TypeReference<List<ProviderDto.LicenseDto>>() { }));
+                case "practiceLocations" -> childrenChanged |= reconcileLocations(provider, value.isNull() ? List.of()
+                    : objectMapper.convertValue(value, new TypeReference<List<ProviderDto.PracticeLocationDto>>() { }));
+                default -> throw new IllegalArgumentException("Field cannot be patched: " + field.getKey());
+            }
+        }
+        
+        if (childrenChanged) {
+            // Touch the row so child-only changes still bump the provider version
+            provider.updatedAt = LocalDateTime.now(clock);
+        }
+        
+        provider.addAuditLog("PROVIDER_PATCHED", 
+            "Provider patched fields " + patched
+            + (oldNpi.equals(provider.npi) ? "" : ". Old NPI: " + oldNpi + ", New NPI: " + provider.npi));
+        
+        Provider.getEntityManager().flush();
+        
+        return mapEntityToDto(provider, ProviderView.STANDARD);
+    }
+    
+    /**
+     * Normalizes a stored provider in place. Nothing is mapped through a DTO;
+     * if no value changes, dirty checking issues no UPDATE at all.
+     */
+    @Transactional
+    public ProviderDto normalizeProvider(Long id) {
+        Provider provider = Provider.findById(id);
+        if (provider == null) {
+            throw new NotFoundException("Provider not found with id: " + id);
+        }
+        
+        String oldNpi = provider.npi;
+        String firstName = normalizeName(provider.firstName);
+        String lastName = normalizeName(provider.lastName);
+        String middleName = normalizeName(provider.middleName);
+        String npi = normalizeNpi(provider.npi);
+        
+        boolean changed = !Objects.equals(firstName, provider.firstName)
+            || !Objects.equals(lastName, provider.lastName)
+            || !Objects.equals(middleName, provider.middleName)
+            || !Objects.equals(npi, provider.npi);
+        if (changed) {
+            provider.firstName = firstName;
+            provider.lastName = lastName;
+            provider.middleName = middleName;
+            provider.npi = npi;
+            provider.addAuditLog("PROVIDER_NORMALIZED", 
+                "Provider normalized. Old NPI: " + oldNpi + ", New NPI: " + provider.npi);
+        }
+        
+        return mapEntityToDto(provider, ProviderView.STANDARD);
+    }
+    
+    private static String requiredText(String field, JsonNode value) {
+        if (value.isNull() || !value.isTextual() || value.asText().isBlank()) {
+            throw new IllegalArgumentException(field + " must be a non-blank string");
+        }
+        return value.asText();
+    }
+    
+    private static String optionalText(JsonNode value) {
+        return value.isNull() ? null : value.asText();
+    }
+    
+    private <T> T required(String field, JsonNode value, Class<T> type) {
+        if (value.isNull()) {
+            throw new IllegalArgumentException(field + " cannot be null");
+        }
+        return objectMapper.convertValue(value, type);
+    }
+    
     @Transactional
     public void deleteProvider(Long id) {
         Provider provider = Provider.findById(id);
@@ -89,7 +498,9 @@ public class ProviderService {
             throw new NotFoundException("Provider not found with id: " + id);
         }
         
-        // Add audit log before deletion
+        // Add audit log before deletion; the cascade loads the audit trail
+        // anyway, so load it first and let the new entry go with it
+        Hibernate.initialize(provider.auditLogs);
         provider.addAuditLog("PROVIDER_DELETED", "Provider deleted with NPI: " + provider.npi);
         
         provider.delete();
@@ -107,8 +518,9 @@ public class ProviderService {
             firstName, lastName, dateOfBirth
         ).list();
         
+        LocalDate asOf = today();
         return potentialDuplicates.stream()
-                .map(this::mapEntityToDto)
+                .map(duplicate -> mapEntityToDto(duplicate, ProviderView.STANDARD, asOf))
                 .collect(Collectors.toList());
     }
     
@@ -125,17 +537,36 @@ public class ProviderService {
         return providerDto;
     }
     
+    private static void requireValidNpi(String npi) {
+        if (!Npi.isValid(npi)) {
+            throw new IllegalArgumentException("Invalid NPI: " + npi);
+        }
+    }
+    
     private String normalizeName(String name) {
-        if (name == null) return null;
-        return name.trim().replaceAll("\\s+", " ");
+        return ProviderNormalizer.normalizeName(name);
     }
     
     private String normalizeNpi(String npi) {
-        if (npi == null) return null;
-        return npi.replaceAll("\\D", ""); // Remove non-digits
+        return ProviderNormalizer.normalizeNpi(npi);
     }
     
-    private void mapDtoToEntity(ProviderDto dto, Provider entity) {
+    /**
+     * Copies the DTO onto the entity.
+     *
+     * @return whether any field or child differed from what the entity held
+     */
+    private boolean mapDtoToEntity(ProviderDto dto, Provider entity) {
+        boolean changed = !Objects.equals(entity.npi, dto.npi)
+            || !Objects.equals(entity.firstName, dto.firstName)
+            || !Objects.equals(entity.lastName, dto.lastName)
+            || !Objects.equals(entity.middleName, dto.middleName)
+            || !Objects.equals(entity.email, dto.email)
+            || !Objects.equals(entity.phone, dto.phone)
+            || !Objects.equals(entity.dateOfBirth, dto.dateOfBirth)
+            || !Objects.equals(entity.specialty, dto.specialty)
+            || !Objects.equals(entity.taxonomyCode, dto.taxonomyCode)
+            || dto.verificationStatus != null && dto.verificationStatus != entity.verificationStatus;
         entity.npi = dto.npi;
         entity.firstName = dto.firstName;
         entity.lastName = dto.lastName;
@@ -149,45 +580,126 @@ public class ProviderService {
             entity.verificationStatus = dto.verificationStatus;
         }
         
-        // Handle licenses
+        // Reconcile children by natural key so unchanged rows keep their IDs
+        // and only the differences are written
         if (dto.licenses != null) {
-            entity.licenses.clear();
-            for (ProviderDto.LicenseDto licenseDto : dto.licenses) {
-                License license = new License();
+            changed |= reconcileLicenses(entity, dto.licenses);
+        }
+        if (dto.practiceLocations != null) {
+            changed |= reconcileLocations(entity, dto.practiceLocations);
+        }
+        return changed;
+    }
+    
+    /** @return whether a license was added, removed or changed */
+    private boolean reconcileLicenses(Provider entity, List<ProviderDto.LicenseDto> licenseDtos) {
+        Map<String, License> existing = new LinkedHashMap<>();
+        for (License license : entity.licenses) {
+            existing.putIfAbsent(licenseKey(license.licenseNumber, license.state), license);
+        }
+        
+        boolean changed = false;
+        for (ProviderDto.LicenseDto licenseDto : licenseDtos) {
+            License license = existing.remove(licenseKey(licenseDto.licenseNumber, licenseDto.state));
+            if (license == null) {
+                license = new License();
                 license.provider = entity;
-                license.licenseNumber = licenseDto.licenseNumber;
-                license.state = licenseDto.state;
-                license.licenseType = licenseDto.licenseType;
-                license.issueDate = licenseDto.issueDate;
-                license.expiryDate = licenseDto.expiryDate;
-                if (licenseDto.status != null) {
-                    license.status = licenseDto.status;
-                }
                 entity.licenses.add(license);
+                changed = true;
+            } else {
+                changed |= !Objects.equals(license.licenseNumber, licenseDto.licenseNumber)
+                    || !Objects.equals(license.state, licenseDto.state)
+                    || !Objects.equals(license.licenseType, licenseDto.licenseType)
+                    || !Objects.equals(license.issueDate, licenseDto.issueDate)
+                    || !Objects.equals(license.expiryDate, licenseDto.expiryDate)
+                    || licenseDto.status != null && licenseDto.status != license.status;
+            }
+            license.licenseNumber = licenseDto.licenseNumber;
+            license.state = licenseDto.state;
+            license.licenseType = licenseDto.licenseType;
+            license.issueDate = licenseDto.issueDate;
+            license.expiryDate = licenseDto.expiryDate;
+            if (licenseDto.status != null) {
+                license.status = licenseDto.status;
             }
         }
         
-        // Handle practice locations
-        if (dto.practiceLocations != null) {
-            entity.practiceLocations.clear();
-            for (ProviderDto.PracticeLocationDto locationDto : dto.practiceLocations) {
-                PracticeLocation location = new PracticeLocation();
+        // Whatever was not matched is gone from the payload; orphanRemoval deletes it
+        entity.licenses.removeAll(existing.values());
+        return changed || !existing.isEmpty();
+    }
+    
+    /** @return whether a location was added, removed or changed */
+    private boolean reconcileLocations(Provider entity, List<ProviderDto.PracticeLocationDto> locationDtos) {
+        Map<String, PracticeLocation> existing = new LinkedHashMap<>();
+        for (PracticeLocation location : entity.practiceLocations) {
+            existing.putIfAbsent(locationKey(location.addressLine1, location.addressLine2,
+                location.city, location.state, location.zipCode), location);
+        }
+        
+        boolean changed = false;
+        for (ProviderDto.PracticeLocationDto locationDto : locationDtos) {
+            PracticeLocation location = existing.remove(locationKey(locationDto.addressLine1,
+                locationDto.addressLine2, locationDto.city, locationDto.state, locationDto.zipCode));
+            if (location == null) {
+                location = new PracticeLocation();
                 location.provider = entity;
-                location.name = locationDto.name;
-                location.addressLine1 = locationDto.addressLine1;
-                location.addressLine2 = locationDto.addressLine2;
-                location.city = locationDto.city;
-                location.state = locationDto.state;
-                location.zipCode = locationDto.zipCode;
-                location.phone = locationDto.phone;
-                location.taxonomyCode = locationDto.taxonomyCode;
-                location.isPrimary = locationDto.isPrimary;
                 entity.practiceLocations.add(location);
+                changed = true;
+            } else {
+                changed |= !Objects.equals(location.name, locationDto.name)
+                    || !Objects.equals(location.addressLine1, locationDto.addressLine1)
+                    || !Objects.equals(location.addressLine2, locationDto.addressLine2)
+                    || !Objects.equals(location.city, locationDto.city)
+                    || !Objects.equals(location.state, locationDto.state)
+                    || !Objects.equals(location.zipCode, locationDto.zipCode)
+                    || !Objects.equals(location.phone, locationDto.phone)
+                    || !Objects.equals(location.taxonomyCode, locationDto.taxonomyCode)
+                    || !Objects.equals(location.isPrimary, locationDto.isPrimary);
             }
+            location.name = locationDto.name;
+            location.addressLine1 = locationDto.addressLine1;
+            location.addressLine2 = locationDto.addressLine2;
+            location.city = locationDto.city;
+            location.state = locationDto.state;
+            location.zipCode = locationDto.zipCode;
+            location.phone = locationDto.phone;
+            location.taxonomyCode = locationDto.taxonomyCode;
+            location.isPrimary = locationDto.isPrimary;
         }
+        
+        entity.practiceLocations.removeAll(existing.values());
+        return changed || !existing.isEmpty();
+    }
+    
+    private static String licenseKey(String licenseNumber, String state) {
+        return keyPart(licenseNumber) + '|' + keyPart(state);
+    }
+    
+    private static String locationKey(String addressLine1, String addressLine2, String city,
+                                      String state, String zipCode) {
+        return keyPart(addressLine1) + '|' + keyPart(addressLine2) + '|' + keyPart(city)
+            + '|' + keyPart(state) + '|' + keyPart(zipCode);
+    }
+    
+    private static String keyPart(String value) {
+        return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+    }
+    
+    /** The date license flags are computed against; read once per call, not per license. */
+    private LocalDate today() {
+        return LocalDate.now(clock);
     }
     
     private ProviderDto mapEntityToDto(Provider entity) {
+        return mapEntityToDto(entity, ProviderView.FULL, today());
+    }
+    
+    private ProviderDto mapEntityToDto(Provider entity, ProviderView view) {
+        return mapEntityToDto(entity, view, today());
+    }
+    
+    private ProviderDto mapEntityToDto(Provider entity, ProviderView view, LocalDate asOf) {
         ProviderDto dto = new ProviderDto();
         dto.id = entity.id;
         dto.npi = entity.npi;
@@ -200,10 +712,15 @@ public class ProviderService {
         dto.specialty = entity.specialty;
         dto.taxonomyCode = entity.taxonomyCode;
         dto.verificationStatus = entity.verificationStatus;
+        dto.version = entity.version;
+        
+        if (view == ProviderView.SUMMARY) {
+            return dto;
+        }
         
         // Map licenses
         dto.licenses = entity.licenses.stream()
-                .map(this::mapLicenseToDto)
+                .map(license -> mapLicenseToDto(license, asOf))
                 .collect(Collectors.toList());
         
         // Map practice locations
@@ -211,15 +728,22 @@ public class ProviderService {
                 .map(this::mapLocationToDto)
                 .collect(Collectors.toList());
         
-        // Map rule evaluations
-        dto.ruleEvaluations = entity.ruleEvaluations.stream()
-                .map(this::mapRuleEvaluationToDto)
+        if (view != ProviderView.FULL) {
+            return dto;
+        }
+        
+        // Map current rule findings (history is served separately, paginated)
+        List<RuleFinding> findings = entity.id != null
+                ? RuleFinding.list("provider.id", Sort.by("ruleName").and("subject"), entity.id)
+                : List.of();
+        dto.ruleEvaluations = findings.stream()
+                .map(this::mapRuleFindingToDto)
                 .collect(Collectors.toList());
         
         return dto;
     }
     
-    private ProviderDto.LicenseDto mapLicenseToDto(License license) {
+    private ProviderDto.LicenseDto mapLicenseToDto(License license, LocalDate asOf) {
         ProviderDto.LicenseDto dto = new ProviderDto.LicenseDto();
         dto.id = license.id;
         dto.licenseNumber = license.licenseNumber;
@@ -228,12 +752,38 @@ public class ProviderService {
         dto.issueDate = license.issueDate;
         dto.expiryDate = license.expiryDate;
         dto.status = license.status;
-        dto.expired = license.isExpired();
-        dto.expiringSoon = license.isExpiringSoon(30);
-        dto.daysUntilExpiry = license.getDaysUntilExpiry();
+        applyExpiry(dto, asOf);
         return dto;
     }
     
+    /**
+     * Recomputes the expiry flags of every license on the DTO as of the given
+     * date; used on submitted providers, whose flags are the client's.
+     */
+    public void applyAsOf(ProviderDto provider, LocalDate asOf) {
+        if (provider.licenses != null) {
+            provider.licenses.forEach(license -> applyExpiry(license, asOf));
+        }
+    }
+    
+    /**
+     * Flags the license from its expiry date, with the expiring-soon window
+     * the license policy decision table sets for its state, as the expiry
+     * rule does. A license without an expiry date is neither.
+     */
+    private void applyExpiry(ProviderDto.LicenseDto dto, LocalDate asOf) {
+        if (dto.expiryDate == null) {
+            dto.daysUntilExpiry = 0;
+            dto.expired = false;
+            dto.expiringSoon = false;
+            return;
+        }
+        dto.daysUntilExpiry = License.daysUntilExpiry(dto.expiryDate, asOf);
+        dto.expired = License.isExpired(dto.expiryDate, asOf);
+        dto.expiringSoon = License.isExpiringSoon(dto.expiryDate,
+            ruleEngineService.expiringSoonDays(dto.state), asOf);
+    }
+    
     private ProviderDto.PracticeLocationDto mapLocationToDto(PracticeLocation location) {
         ProviderDto.PracticeLocationDto dto = new ProviderDto.PracticeLocationDto();
         dto.id = location.id;
@@ -250,6 +800,21 @@ public class ProviderService {
         return dto;
     }
     
+    private ProviderDto.RuleEvaluationDto mapRuleFindingToDto(RuleFinding finding) {
+        ProviderDto.RuleEvaluationDto dto = new ProviderDto.RuleEvaluationDto();
+        dto.id = finding.id;
+        dto.ruleName = finding.ruleName;
+        dto.triggered = finding.triggered;
+        dto.severity = finding.severity;
+        dto.message = finding.message;
+        dto.metadata = finding.metadata;
+        dto.evaluatedAt = finding.evaluatedAt.toLocalDate();
+        dto.facts = (finding.facts != null && !finding.facts.isEmpty())
+            ? List.of(finding.facts.split("\n"))
+            : List.of();
+        return dto;
+    }
+    
     private ProviderDto.RuleEvaluationDto mapRuleEvaluationToDto(RuleEvaluation evaluation) {
         ProviderDto.RuleEvaluationDto dto = new ProviderDto.RuleEvaluationDto();
         dto.id = evaluation.id;
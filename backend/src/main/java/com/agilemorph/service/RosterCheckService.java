@@ -0,0 +1,118 @@
+package com.agilemorph.service;
+
+import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.dto.RosterCheckDto;
+import com.agilemorph.dto.RosterKey;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.api.runtime.KieSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Checks a roster for problems that involve two providers: a duplicate NPI,
+ * the same name and date of birth, a shared license, or a shared phone number
+ * and practice address.
+ *
+ * Providers are streamed into sessions over the cross-provider rules as
+ * {@link RosterKey} facts, and the Rete network joins keys of equal value.
+ * Keys are split into {@code agilemorph.rules.roster-check.partitions} by
+ * hash; equal keys always land in the same partition, so no match is lost,
+ * and only one partition's keys are in memory at a time. Each partition
+ * streams the roster again, trading reads for memory: one partition reads
+ * the roster once into a single session.
+ */
+@ApplicationScoped
+public class RosterCheckService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RosterCheckService.class);
+
+    @Inject
+    ProviderService providerService;
+
+    @Inject
+    RosterEvaluationService rosterEvaluationService;
+
+    @Inject
+    RuleEngineService ruleEngineService;
+
+    @Inject
+    Clock clock;
+
+    @ConfigProperty(name = "agilemorph.rules.roster-check.partitions", defaultValue = "4")
+    int partitions;
+
+    /**
+     * Checks every provider on file, reading them range by range as roster
+     * evaluation runs do.
+     */
+    public RosterCheckDto checkRoster() {
+        List<RosterEvaluationService.Range> ranges = QuarkusTransaction.requiringNew().call(rosterEvaluationService::partition);
+        LocalDate asOf = LocalDate.now(clock);
+        return check(roster -> {
+            for (RosterEvaluationService.Range range : ranges) {
+                providerService.getProvidersForEvaluation(range.fromId(), range.toId(), asOf).forEach(roster);
+            }
+        });
+    }
+
+    /**
+     * Checks a submitted roster, for example a file before it is imported.
+     * The providers need not be on file.
+     */
+    public RosterCheckDto checkProviders(List<ProviderDto> providers) {
+        return check(providers::forEach);
+    }
+
+    /**
+     * Runs every partition over the roster, which {@code source} streams to
+     * the consumer it is given, once per partition and in the same order.
+     */
+    private RosterCheckDto check(Consumer<Consumer<ProviderDto>> source) {
+        long started = System.nanoTime();
+        RosterCheckDto result = new RosterCheckDto();
+        result.checkedAt = LocalDateTime.now(clock);
+        result.partitions = partitions;
+        result.matches = new ArrayList<>();
+
+        for (int partition = 0; partition < partitions; partition++) {
+            int current = partition;
+            long[] counts = new long[2];
+            KieSession session = ruleEngineService.newRosterSession();
+            try {
+                source.accept(provider -> {
+                    for (RosterKey key : RosterKey.keysOf(provider, counts[0])) {
+                        if (key.partition(partitions) == current) {
+                            session.insert(key);
+                            counts[1]++;
+                        }
+                    }
+                    counts[0]++;
+                });
+                session.fireAllRules();
+                for (Object match : session.getObjects(fact -> fact instanceof RosterCheckDto.Match)) {
+                    result.matches.add((RosterCheckDto.Match) match);
+                }
+            } finally {
+                session.dispose();
+            }
+            result.providers = counts[0];
+            result.largestPartition = Math.max(result.largestPartition, counts[1]);
+        }
+
+        result.durationMs = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        logger.info("Roster check of {} providers in {} partitions found {} matches in {} ms (largest partition {} keys)",
+            result.providers, partitions, result.matches.size(), result.durationMs, result.largestPartition);
+        return result;
+    }
+}
@@ -0,0 +1,233 @@
+package com.agilemorph.service;
+
+import com.agilemorph.dto.BatchJobDto;
+import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.dto.RuleEvaluationResponse;
+import com.agilemorph.model.BatchJob;
+import com.agilemorph.model.Provider;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.NotFoundException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Re-evaluates rules for every provider on file.
+ *
+ * The provider ids are cut into ranges of {@code agilemorph.rules.roster.range-size}
+ * by walking the primary key, and the ranges are split across a fork/join
+ * pool of {@code agilemorph.rules.roster.parallelism} workers. Each range is
+ * loaded in one short read transaction, evaluated over the shared KieBase in
+ * a session of its own, and written back through
+ * {@link RuleEvaluationWriter#writeBatch}. The clock is read once per run,
+ * so every provider is judged against the same date however long the run
+ * takes. Progress is tracked on a
+ * {@link BatchJob}, whose DTO reports throughput and an ETA. A run keeps no
+ * checkpoint, so runs cut off by a restart are marked FAILED at startup and
+ * the roster is re-evaluated by starting a new one.
+ */
+@ApplicationScoped
+public class RosterEvaluationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RosterEvaluationService.class);
+
+    @Inject
+    ManagedExecutor executor;
+
+    @Inject
+    ProviderService providerService;
+
+    @Inject
+    RuleEngineService ruleEngineService;
+
+    @Inject
+    RuleEvaluationWriter ruleEvaluationWriter;
+
+    @Inject
+    Clock clock;
+
+    @ConfigProperty(name = "agilemorph.rules.roster.parallelism", defaultValue = "4")
+    int parallelism;
+
+    @ConfigProperty(name = "agilemorph.rules.roster.range-size", defaultValue = "500")
+    int rangeSize;
+
+    /** Provider ids [fromId, toId], holding size providers when partitioned. */
+    record Range(long fromId, long toId, int size) {
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        int interrupted = QuarkusTransaction.requiringNew().call(() -> BatchJob.update(
+            "status = ?1, error = ?2, updatedAt = ?3 where jobType = ?4 and status in ?5",
+            BatchJob.JobStatus.FAILED, "Interrupted by a restart; start a new run", LocalDateTime.now(),
+            BatchJob.JobType.RULE_EVALUATION, List.of(BatchJob.JobStatus.PENDING, BatchJob.JobStatus.RUNNING)));
+        if (interrupted > 0) {
+            logger.warn("Marked {} rule evaluation runs left unfinished by the previous run as failed", interrupted);
+        }
+    }
+
+    public BatchJobDto startRun() {
+        Long jobId = QuarkusTransaction.requiringNew().call(() -> {
+            BatchJob job = new BatchJob();
+            job.jobType = BatchJob.JobType.RULE_EVALUATION;
+            job.status = BatchJob.JobStatus.RUNNING;
+            job.total = Provider.count();
+            job.startedAt = LocalDateTime.now();
+            job.persist();
+            return job.id;
+        });
+        executor.runAsync(() -> run(jobId));
+        return getRun(jobId);
+    }
+
+    @Transactional
+    public BatchJobDto getRun(Long jobId) {
+        BatchJob job = BatchJob.findById(jobId);
+        if (job == null || job.jobType != BatchJob.JobType.RULE_EVALUATION) {
+            throw new NotFoundException("Rule evaluation run not found with id: " + jobId);
+        }
+        return BatchJobDto.from(job);
+    }
+
+    void run(Long jobId) {
+        ForkJoinPool pool = newPool();
+        try {
+            // Build the KieBase once here rather than racing to build it in every worker
+            ruleEngineService.initializeRuleEngine();
+            List<Range> ranges = QuarkusTransaction.requiringNew().call(this::partition);
+            LocalDateTime evaluatedAt = LocalDateTime.now(clock);
+            pool.invoke(new RangeTask(jobId, evaluatedAt, ranges));
+
+            QuarkusTransaction.requiringNew().run(() -> {
+                BatchJob job = BatchJob.findById(jobId);
+                job.status = BatchJob.JobStatus.COMPLETED;
+                job.finishedAt = LocalDateTime.now();
+                BatchJobDto dto = BatchJobDto.from(job);
+                logger.info("Rule evaluation run {} completed: {} providers in {} ranges, {} failed, {} providers/s",
+                    jobId, job.processed, ranges.size(), job.failed, dto.rowsPerSecond);
+            });
+        } catch (Exception e) {
+            logger.error("Rule evaluation run {} failed", jobId, e);
+            QuarkusTransaction.requiringNew().run(() -> {
+                BatchJob job = BatchJob.findById(jobId);
+                job.status = BatchJob.JobStatus.FAILED;
+                job.error = e.getMessage();
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Workers inherit this thread's context class loader, which Drools and Hibernate resolve classes through. */
+    private ForkJoinPool newPool() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setContextClassLoader(classLoader);
+            return worker;
+        }, null, false);
+    }
+
+    /**
+     * Cuts the provider ids into ranges of rangeSize providers, reading only
+     * the primary key.
+     */
+    List<Range> partition() {
+        Session session = Provider.getEntityManager().unwrap(Session.class);
+        List<Range> ranges = new ArrayList<>();
+        long fromId = 0;
+        long toId = 0;
+        int size = 0;
+        try (ScrollableResults<Long> ids = session.createQuery("SELECT p.id FROM Provider p ORDER BY p.id", Long.class)
+                .setFetchSize(rangeSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (ids.next()) {
+                toId = ids.get();
+                if (size == 0) {
+                    fromId = toId;
+                }
+                if (++size == rangeSize) {
+                    ranges.add(new Range(fromId, toId, size));
+                    size = 0;
+                }
+            }
+        }
+        if (size > 0) {
+            ranges.add(new Range(fromId, toId, size));
+        }
+        return ranges;
+    }
+
+    /**
+     * Evaluates one range and adds its counts to the run. A range that fails
+     * is counted as failed rather than aborting the others.
+     */
+    void evaluateRange(Long jobId, LocalDateTime evaluatedAt, Range range) {
+        long processed = range.size();
+        long written = 0;
+        long failed;
+        try {
+            LocalDate asOf = evaluatedAt.toLocalDate();
+            List<ProviderDto> providers = providerService.getProvidersForEvaluation(range.fromId(), range.toId(), asOf);
+            Map<Long, RuleEvaluationResponse> responses = ruleEngineService.evaluateProviders(providers, evaluatedAt, asOf);
+            written = ruleEvaluationWriter.writeBatch(responses);
+            processed = providers.size();
+            failed = responses.values().stream().filter(response -> !response.success).count();
+        } catch (Exception e) {
+            logger.error("Rule evaluation run {} failed on providers {}..{}", jobId, range.fromId(), range.toId(), e);
+            failed = processed;
+        }
+
+        long rangeProcessed = processed;
+        long rangeWritten = written;
+        long rangeFailed = failed;
+        // Workers finish out of order, so counts are added in place rather than read and rewritten
+        QuarkusTransaction.requiringNew().run(() -> BatchJob.update(
+            "processed = processed + ?1, updated = updated + ?2, failed = failed + ?3, updatedAt = ?4 where id = ?5",
+            rangeProcessed, rangeWritten, rangeFailed, LocalDateTime.now(), jobId));
+    }
+
+    private final class RangeTask extends RecursiveAction {
+
+        private final Long jobId;
+        private final LocalDateTime evaluatedAt;
+        private final List<Range> ranges;
+
+        RangeTask(Long jobId, LocalDateTime evaluatedAt, List<Range> ranges) {
+            this.jobId = jobId;
+            this.evaluatedAt = evaluatedAt;
+            this.ranges = ranges;
+        }
+
+        @Override
+        protected void compute() {
+            if (ranges.size() <= 1) {
+                ranges.forEach(range -> evaluateRange(jobId, evaluatedAt, range));
+                return;
+            }
+            int middle = ranges.size() / 2;
+            invokeAll(new RangeTask(jobId, evaluatedAt, ranges.subList(0, middle)),
+                new RangeTask(jobId, evaluatedAt, ranges.subList(middle, ranges.size())));
+        }
+    }
+}
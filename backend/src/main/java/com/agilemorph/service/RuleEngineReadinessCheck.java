@@ -0,0 +1,27 @@
+package com.agilemorph.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+/**
+ * Reports the service ready at /q/health/ready only once the rules are
+ * loaded. The build itself starts at startup, see
+ * {@link RuleEngineService#onStart}; probes only report on it.
+ */
+@Readiness
+@ApplicationScoped
+public class RuleEngineReadinessCheck implements HealthCheck {
+
+    @Inject
+    RuleEngineService ruleEngineService;
+
+    @Override
+    public HealthCheckResponse call() {
+        return HealthCheckResponse.named("rule-engine")
+            .status(ruleEngineService.isRuleEngineInitialized())
+            .build();
+    }
+}
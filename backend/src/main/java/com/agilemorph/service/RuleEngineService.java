@@ -1,28 +1,48 @@
 package com.agilemorph.service;
 
+import com.agilemorph.dto.LicensePolicy;
 import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.dto.ProviderView;
 import com.agilemorph.dto.RuleEvaluationRequest;
 import com.agilemorph.dto.RuleEvaluationResponse;
-import com.agilemorph.model.Provider;
-import com.agilemorph.model.RuleEvaluation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.faulttolerance.api.CircuitBreakerName;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.kie.api.KieBase;
 import org.kie.api.KieServices;
-import org.kie.api.builder.KieBuilder;
-import org.kie.api.builder.KieFileSystem;
-import org.kie.api.builder.Message;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
 import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @ApplicationScoped
 public class RuleEngineService {
@@ -32,25 +52,89 @@ public class RuleEngineService {
     @Inject
     ProviderService providerService;
     
-    private KieContainer kieContainer;
+    @Inject
+    RuleEvaluationWriter ruleEvaluationWriter;
+    
+    @Inject
+    Clock clock;
+    
+    @Inject
+    ManagedExecutor executor;
+    
+    /** Longest a single provider's evaluation may run before its session is halted. */
+    @ConfigProperty(name = "agilemorph.rules.evaluation.time-budget", defaultValue = "2S")
+    Duration timeBudget;
+    
+    /** Most rule firings a single provider's evaluation may make before its session is halted. */
+    @ConfigProperty(name = "agilemorph.rules.evaluation.max-firings", defaultValue = "10000")
+    int maxFirings;
+    
+    /** KieBase of the cross-provider rules under rules/roster, see META-INF/kmodule.xml. */
+    static final String ROSTER_KIE_BASE = "rosterRules";
+    
+    /** The license policy decision table, whose window table lists the states with a window of their own. */
+    static final String LICENSE_POLICY_TABLE = "rules/license-expiry-policy.drl.csv";
+    
+    private static final String WINDOW_BY_STATE_TABLE = "RuleTable Expiring Soon Window By State";
+    
+    /** Circuit breaker over the evaluations requests wait on, see {@link #fireRules}. */
+    static final String EVALUATION_CIRCUIT_BREAKER = "rule-evaluation";
+    
+    private volatile KieContainer kieContainer;
     
-    public void initializeRuleEngine() {
+    @Inject
+    MeterRegistry meterRegistry;
+    
+    // Concurrent evaluations of the same stored provider share one session
+    private SingleFlight<ProviderEvaluation, RuleEvaluationResponse> evaluations;
+    
+    private record ProviderEvaluation(Long providerId, LocalDate asOf) {}
+    
+    // Expiring-soon windows the license policy table sets, by license state; resolved with the KieBase
+    private volatile Map<String, Integer> expiringSoonDays = Map.of();
+    
+    @PostConstruct
+    void init() {
+        evaluations = new SingleFlight<>("rule-evaluation", meterRegistry);
+    }
+    
+    /**
+     * Builds the KieBases on a worker thread once startup fires, so the
+     * build overlaps the rest of boot instead of delaying it.
+     * {@link RuleEngineReadinessCheck} reports the service not ready until it
+     * finishes; an evaluation that arrives earlier waits for the build in
+     * {@link #initializeRuleEngine}, and one after a failed build retries it.
+     */
+    void onStart(@Observes StartupEvent event) {
+        executor.runAsync(this::initializeRuleEngine);
+    }
+    
+    /**
+     * Loads the rules. The DRL under src/main/resources/rules is compiled to
+     * the Drools executable model at build time (kie-maven-plugin, see
+     * META-INF/kmodule.xml), so this only instantiates the generated classes
+     * into a KieBase; nothing is parsed or compiled at runtime.
+     */
+    public synchronized void initializeRuleEngine() {
+        if (kieContainer != null) {
+            return;
+        }
         try {
             KieServices kieServices = KieServices.Factory.get();
-            KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
-            
-            // Load DRL files from classpath
-            loadDrlFiles(kieServices, kieFileSystem);
+            KieContainer container = kieServices.newKieClasspathContainer(getClass().getClassLoader());
             
-            KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem);
-            kieBuilder.buildAll();
-            
-            if (kieBuilder.getResults().hasMessages(Message.Level.ERROR)) {
-                logger.error("Error building rules: {}", kieBuilder.getResults().getMessages());
-                throw new RuntimeException("Failed to build rules");
+            // No container.verify(): it recompiles every rule resource left on the classpath, and
+            // kie-maven-plugin already failed the build on any rule errors.
+            // Build both KieBases here rather than on the first evaluation. Drools falls back to an
+            // empty KieBase when it cannot match the generated model to this project, so check for rules
+            KieBase kieBase = container.getKieBase();
+            if (kieBase.getKiePackages().stream().allMatch(kiePackage -> kiePackage.getRules().isEmpty())) {
+                throw new IllegalStateException("No rules found; was the executable model generated at build time?");
             }
+            container.getKieBase(ROSTER_KIE_BASE);
+            expiringSoonDays = resolveExpiringSoonDays(kieBase);
             
-            kieContainer = kieServices.newKieContainer(kieBuilder.getKieModule().getReleaseId());
+            kieContainer = container;
             logger.info("Rule engine initialized successfully");
             
         } catch (Exception e) {
@@ -59,46 +143,135 @@ public class RuleEngineService {
         }
     }
     
-    private void loadDrlFiles(KieServices kieServices, KieFileSystem kieFileSystem) {
+    /**
+     * Evaluates the submitted provider. License expiry flags are recomputed
+     * from the expiry dates first, as of {@code asOf} or today, so the
+     * flags returned agree with the findings whatever the client sent. With
+     * {@code asOf} set nothing is persisted: a forecast is not the
+     * provider's current state.
+     *
+     * @throws RuleEvaluationHaltedException if the evaluation ran over its
+     *     time budget or firing cap
+     */
+    public RuleEvaluationResponse evaluateRules(RuleEvaluationRequest request) {
+        if (request.provider != null) {
+            providerService.applyAsOf(request.provider, request.asOf != null ? request.asOf : LocalDate.now(clock));
+        }
+        return fireRules(request);
+    }
+    
+    /**
+     * The expiring-soon window the license policy decision table sets for
+     * licenses of this state, so license DTOs are flagged with the same
+     * window the expiry rule applies. A plain lookup in the windows resolved
+     * when the KieBase was built; states the table does not list, and every
+     * state before the build finishes, get the default.
+     */
+    public int expiringSoonDays(String state) {
+        Integer days = state != null ? expiringSoonDays.get(state) : null;
+        return days != null ? days : LicensePolicy.DEFAULT_EXPIRING_SOON_DAYS;
+    }
+    
+    /**
+     * Runs a policy for each state the window table lists through one
+     * session and keeps the window the rules give it, so the rules rather
+     * than the spreadsheet cells stay the source of each value.
+     */
+    private static Map<String, Integer> resolveExpiringSoonDays(KieBase kieBase) throws IOException {
+        List<LicensePolicy> policies = new ArrayList<>();
+        for (String state : policyTableStates()) {
+            policies.add(new LicensePolicy(state, null));
+        }
+        KieSession kieSession = kieBase.newKieSession();
         try {
-            // Load license expiry rule
-            InputStream licenseExpiryStream = getClass().getClassLoader()
-                .getResourceAsStream("rules/license-expiry-rule.drl");
-            if (licenseExpiryStream != null) {
-                kieFileSystem.write("src/main/resources/rules/license-expiry-rule.drl", 
-                    kieServices.getResources().newInputStreamResource(licenseExpiryStream));
-            }
-            
-            // Load duplicate detection rule
-            InputStream duplicateStream = getClass().getClassLoader()
-                .getResourceAsStream("rules/duplicate-detection-rule.drl");
-            if (duplicateStream != null) {
-                kieFileSystem.write("src/main/resources/rules/duplicate-detection-rule.drl", 
-                    kieServices.getResources().newInputStreamResource(duplicateStream));
+            policies.forEach(kieSession::insert);
+            kieSession.fireAllRules();
+        } finally {
+            kieSession.dispose();
+        }
+        Map<String, Integer> windows = new HashMap<>();
+        for (LicensePolicy policy : policies) {
+            windows.put(policy.getState(), policy.getExpiringSoonDays());
+        }
+        return Map.copyOf(windows);
+    }
+    
+    /**
+     * The states listed in the decision table's expiring-soon window table:
+     * the first column of the rows below its four header rows, up to the
+     * next blank row.
+     */
+    static Set<String> policyTableStates() throws IOException {
+        InputStream table = RuleEngineService.class.getClassLoader().getResourceAsStream(LICENSE_POLICY_TABLE);
+        if (table == null) {
+            throw new IllegalStateException("License policy table " + LICENSE_POLICY_TABLE + " not found");
+        }
+        Set<String> states = new LinkedHashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(table, StandardCharsets.UTF_8))) {
+            String line;
+            int headerRows = -1;
+            while ((line = reader.readLine()) != null) {
+                if (headerRows < 0) {
+                    if (line.startsWith(WINDOW_BY_STATE_TABLE)) {
+                        headerRows = 4;
+                    }
+                } else if (headerRows > 0) {
+                    headerRows--;
+                } else {
+                    String state = line.split(",", -1)[0].replace("\"", "").trim();
+                    if (state.isEmpty()) {
+                        break;
+                    }
+                    states.add(state);
+                }
             }
-            
-        } catch (Exception e) {
-            logger.error("Error loading DRL files", e);
-            throw new RuntimeException("Failed to load DRL files", e);
         }
+        return states;
     }
     
-    @Transactional
-    public RuleEvaluationResponse evaluateRules(RuleEvaluationRequest request) {
+    /**
+     * Evaluates one provider for a waiting request. The rules run with no
+     * transaction or connection held; a saved provider's findings are written
+     * afterwards, and an unsaved provider's never touch the database.
+     *
+     * Halted evaluations count as failures of the circuit breaker, so with a
+     * failure ratio of 0.5 over the last 20 it opens once the median
+     * evaluation runs over the time budget, then rejects evaluations for 10
+     * seconds instead of tying up more workers.
+     * {@code CircuitBreaker/failureRatio=0.1} in the config would open it on
+     * the 90th percentile instead.
+     */
+    @CircuitBreakerName(EVALUATION_CIRCUIT_BREAKER)
+    @CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 10, delayUnit = ChronoUnit.SECONDS,
+        failOn = RuleEvaluationHaltedException.class)
+    RuleEvaluationResponse fireRules(RuleEvaluationRequest request) {
         if (kieContainer == null) {
             initializeRuleEngine();
         }
         
         RuleEvaluationResponse response = new RuleEvaluationResponse();
-        response.evaluatedAt = LocalDateTime.now();
+        response.evaluatedAt = LocalDateTime.now(clock);
+        response.asOf = request.asOf != null ? request.asOf : response.evaluatedAt.toLocalDate();
         response.results = new ArrayList<>();
-        response.metadata = new HashMap<>();
+        response.metadata = new RuleEvaluationResponse.EvaluationMetadata();
         
+        KieSession kieSession = kieContainer.newKieSession();
         try {
-            KieSession kieSession = kieContainer.newKieSession();
+            // Only pay for trace collection when the caller asked for it
+            List<String> trace = null;
+            if (request.includeTrace) {
+                List<String> firedRules = new ArrayList<>();
+                kieSession.addEventListener(new DefaultAgendaEventListener() {
+                    @Override
+                    public void afterMatchFired(AfterMatchFiredEvent event) {
+                        firedRules.add(event.getMatch().getRule().getName());
+                    }
+                });
+                trace = firedRules;
+            }
             
-            // Add provider to session
-            kieSession.insert(request.provider);
+            // Add provider and its license policies to session
+            insertProvider(kieSession, request.provider, response.asOf);
             
             // Add context if provided
             if (request.context != null) {
@@ -106,71 +279,236 @@ public class RuleEngineService {
             }
             
             // Fire rules
-            int rulesFired = kieSession.fireAllRules();
+            int rulesFired = fireAllRules(kieSession, timeBudget, maxFirings);
             
-            // Collect results and facts from session
-            List<Object> facts = new ArrayList<>();
+            // Collect results, and the rest of working memory only on request
+            List<Object> facts = request.includeFacts ? new ArrayList<>() : null;
             for (Object fact : kieSession.getObjects()) {
                 if (fact instanceof RuleEvaluationResponse.RuleResult result) {
                     response.results.add(result);
                 }
-                facts.add(fact);
+                if (facts != null) {
+                    facts.add(fact);
+                }
             }
             
             response.success = true;
             response.message = "Rules evaluated successfully. " + rulesFired + " rules fired.";
-            response.metadata.put("rulesFired", rulesFired);
-            response.metadata.put("facts", facts);
-            
-            // Create rule evaluation records
-            createRuleEvaluationRecords(request.provider, response);
-            
-            kieSession.dispose();
+            response.metadata.rulesFired = rulesFired;
+            response.metadata.facts = facts;
+            response.metadata.trace = trace;
             
+        } catch (RuleEvaluationHaltedException e) {
+            // Log without assuming a provider: a failure here would turn the 503 into a 500
+            logger.warn("Rule evaluation halted for provider {}: {}",
+                request.provider != null ? request.provider.npi : null, e.getMessage());
+            throw e;
         } catch (Exception e) {
             logger.error("Error evaluating rules", e);
             response.success = false;
             response.message = "Error evaluating rules: " + e.getMessage();
+            return response;
+        } finally {
+            kieSession.dispose();
+        }
+        
+        // Create rule evaluation records, unless this was a look at another day. Rules ran
+        // outside any transaction; writing the findings takes a short one of its own
+        if (response.asOf.equals(response.evaluatedAt.toLocalDate())) {
+            try {
+                createRuleEvaluationRecords(request.provider, response);
+            } catch (Exception e) {
+                logger.error("Error saving rule evaluation for provider {}",
+                    request.provider != null ? request.provider.id : null, e);
+                response.success = false;
+                response.message = "Error saving rule evaluation: " + e.getMessage();
+            }
         }
         
         return response;
     }
     
-    @Transactional
-    public RuleEvaluationResponse evaluateRulesForProvider(Long providerId) {
-        ProviderDto provider = providerService.getProvider(providerId);
+    /**
+     * Fires the session's rules, halting it once they have run longer than
+     * {@code timeBudget} or fired more than {@code maxFirings} times. Limits
+     * are checked after each firing, so a halt lands between two firings.
+     *
+     * @return the number of rules fired
+     * @throws RuleEvaluationHaltedException if either limit was reached
+     */
+    static int fireAllRules(KieSession kieSession, Duration timeBudget, int maxFirings) {
+        EvaluationLimits limits = new EvaluationLimits(kieSession, timeBudget, maxFirings);
+        kieSession.addEventListener(limits);
+        try {
+            int rulesFired = kieSession.fireAllRules();
+            if (limits.exceeded != null) {
+                throw new RuleEvaluationHaltedException(limits.exceeded);
+            }
+            return rulesFired;
+        } finally {
+            kieSession.removeEventListener(limits);
+        }
+    }
+    
+    private static final class EvaluationLimits extends DefaultAgendaEventListener {
+        
+        private final KieSession kieSession;
+        private final Duration timeBudget;
+        private final int maxFirings;
+        private final long started = System.nanoTime();
+        private int fired;
+        String exceeded;
         
-        RuleEvaluationRequest request = new RuleEvaluationRequest();
-        request.provider = provider;
-        request.context = new HashMap<>();
-        request.includeFacts = true;
+        EvaluationLimits(KieSession kieSession, Duration timeBudget, int maxFirings) {
+            this.kieSession = kieSession;
+            this.timeBudget = timeBudget;
+            this.maxFirings = maxFirings;
+        }
         
-        return evaluateRules(request);
+        @Override
+        public void afterMatchFired(AfterMatchFiredEvent event) {
+            if (exceeded != null) {
+                return;
+            }
+            fired++;
+            long elapsed = System.nanoTime() - started;
+            if (fired > maxFirings) {
+                exceeded = "Rule evaluation halted after more than " + maxFirings + " rule firings";
+            } else if (elapsed > timeBudget.toNanos()) {
+                exceeded = "Rule evaluation halted after " + TimeUnit.NANOSECONDS.toMillis(elapsed)
+                    + " ms, over its " + timeBudget.toMillis() + " ms budget";
+            } else {
+                return;
+            }
+            kieSession.halt();
+        }
+    }
+    
+    /**
+     * Evaluates many providers without persisting anything, reusing one
+     * session from the shared KieBase: working memory is cleared after each
+     * provider, so results never leak between them. Safe to call from
+     * several threads at once, each getting its own session.
+     *
+     * @return responses keyed by provider id, in the order given
+     */
+    public Map<Long, RuleEvaluationResponse> evaluateProviders(List<ProviderDto> providers, LocalDateTime evaluatedAt,
+                                                               LocalDate asOf) {
+        if (kieContainer == null) {
+            initializeRuleEngine();
+        }
+        KieBase kieBase = kieContainer.getKieBase();
+        Map<Long, RuleEvaluationResponse> responses = new LinkedHashMap<>();
+        KieSession kieSession = kieBase.newKieSession();
+        try {
+            for (ProviderDto provider : providers) {
+                RuleEvaluationResponse response = new RuleEvaluationResponse();
+                response.evaluatedAt = evaluatedAt;
+                response.asOf = asOf;
+                response.results = new ArrayList<>();
+                response.metadata = new RuleEvaluationResponse.EvaluationMetadata();
+                try {
+                    insertProvider(kieSession, provider, asOf);
+                    kieSession.insert(new HashMap<>());
+                    int rulesFired = fireAllRules(kieSession, timeBudget, maxFirings);
+                    for (Object fact : kieSession.getObjects()) {
+                        if (fact instanceof RuleEvaluationResponse.RuleResult result) {
+                            response.results.add(result);
+                        }
+                    }
+                    for (FactHandle handle : new ArrayList<FactHandle>(kieSession.getFactHandles())) {
+                        kieSession.delete(handle);
+                    }
+                    response.success = true;
+                    response.message = "Rules evaluated successfully. " + rulesFired + " rules fired.";
+                    response.metadata.rulesFired = rulesFired;
+                } catch (Exception e) {
+                    logger.error("Error evaluating rules for provider {}", provider.id, e);
+                    response.success = false;
+                    response.message = "Error evaluating rules: " + e.getMessage();
+                    // Start the next provider from a clean session
+                    kieSession.dispose();
+                    kieSession = kieBase.newKieSession();
+                }
+                responses.put(provider.id, response);
+            }
+        } finally {
+            kieSession.dispose();
+        }
+        return responses;
+    }
+    
+    /**
+     * Opens a session over the cross-provider rules. The caller disposes it.
+     */
+    KieSession newRosterSession() {
+        if (kieContainer == null) {
+            initializeRuleEngine();
+        }
+        return kieContainer.getKieBase(ROSTER_KIE_BASE).newKieSession();
+    }
+    
+    /**
+     * Inserts the provider and, for each of its licenses, the
+     * {@link LicensePolicy} the decision table fills in, judging the license
+     * as of the given date. Rules read the licenses and practice locations
+     * through the provider; only the policies need to be facts, because the
+     * table matches and modifies them. Nothing is written to the provider
+     * DTO: {@link #evaluateRulesForProvider} evaluates the DTO a coalesced
+     * read returns, which concurrent GETs serialize at the same time.
+     */
+    public static void insertProvider(KieSession kieSession, ProviderDto provider, LocalDate asOf) {
+        kieSession.insert(provider);
+        if (provider.licenses != null) {
+            for (ProviderDto.LicenseDto license : provider.licenses) {
+                kieSession.insert(new LicensePolicy(provider, license, asOf));
+            }
+        }
+    }
+    
+    public RuleEvaluationResponse evaluateRulesForProvider(Long providerId) {
+        return evaluateRulesForProvider(providerId, null);
+    }
+    
+    /**
+     * Evaluates a stored provider as of the given date, or today when null.
+     * Only today's evaluation replaces the provider's findings. Concurrent
+     * calls for the same provider and date share one evaluation and its
+     * response.
+     *
+     * @throws RuleEvaluationHaltedException if the evaluation ran over its
+     *     time budget or firing cap
+     */
+    public RuleEvaluationResponse evaluateRulesForProvider(Long providerId, LocalDate asOf) {
+        return evaluations.execute(new ProviderEvaluation(providerId, asOf), () -> {
+            // Rules only look at licenses and locations, not previous findings
+            ProviderDto provider = providerService.getProvider(providerId, ProviderView.STANDARD,
+                asOf != null ? asOf : LocalDate.now(clock));
+            
+            RuleEvaluationRequest request = new RuleEvaluationRequest();
+            request.provider = provider;
+            request.context = new HashMap<>();
+            request.asOf = asOf;
+            
+            // Flags were mapped for asOf already
+            return fireRules(request);
+        });
     }
     
     private void createRuleEvaluationRecords(ProviderDto provider, RuleEvaluationResponse response) {
-        // Skip persistence if provider is not yet saved (id is null)
+        // Skip persistence if provider is not yet saved (id is null), without opening a transaction
         if (provider.id == null) {
             return;
         }
-        // Create rule evaluation records for each result
-        for (RuleEvaluationResponse.RuleResult result : response.results) {
-            RuleEvaluation evaluation = new RuleEvaluation();
-            evaluation.provider = Provider.findById(provider.id);
-            evaluation.ruleName = result.ruleName;
-            evaluation.triggered = result.triggered;
-            evaluation.severity = result.severity;
-            evaluation.message = result.message;
-            evaluation.metadata = result.metadata;
-            evaluation.facts = result.facts;
-            evaluation.persist();
-        }
+        ruleEvaluationWriter.write(provider.id, response.evaluatedAt, response.results);
     }
     
     public List<String> getLoadedRules() {
         List<String> rules = new ArrayList<>();
         rules.add("license-expiry-rule");
+        rules.add("license-expiry-policy");
         rules.add("duplicate-detection-rule");
+        rules.add("cross-provider-rule");
         return rules;
     }
     
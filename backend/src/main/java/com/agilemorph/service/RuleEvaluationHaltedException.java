@@ -0,0 +1,12 @@
+package com.agilemorph.service;
+
+/**
+ * Thrown when a rule evaluation is halted for exceeding its time budget or
+ * its cap on rule firings. Its findings are incomplete and are not saved.
+ */
+public class RuleEvaluationHaltedException extends RuntimeException {
+
+    public RuleEvaluationHaltedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,185 @@
+package com.agilemorph.service;
+
+import com.agilemorph.dto.RuleEvaluationResponse;
+import com.agilemorph.model.Provider;
+import com.agilemorph.model.RuleEvaluation;
+import com.agilemorph.model.RuleFinding;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Writes rule results: upserts the provider's current rule_findings and
+ * appends to the rule_evaluations history.
+ *
+ * Each provider is attached through a single getReference proxy rather than a
+ * findById per result, and inserts are left to Hibernate's JDBC batching.
+ * An evaluation whose results are identical to the provider's current
+ * findings can optionally be left out of history, so re-running rules over an
+ * unchanged roster does not grow it.
+ */
+@ApplicationScoped
+public class RuleEvaluationWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleEvaluationWriter.class);
+
+    @ConfigProperty(name = "agilemorph.rules.persistence.chunk-size", defaultValue = "100")
+    int chunkSize;
+
+    @ConfigProperty(name = "agilemorph.rules.persistence.skip-unchanged", defaultValue = "false")
+    boolean skipUnchanged;
+
+    /**
+     * Persists the results of one evaluation in the caller's transaction, or
+     * in a short one of its own when the caller has none.
+     *
+     * @return number of history rows inserted
+     */
+    @Transactional
+    public int write(Long providerId, LocalDateTime evaluatedAt, List<RuleEvaluationResponse.RuleResult> results) {
+        if (providerId == null) {
+            return 0;
+        }
+        if (results == null) {
+            results = List.of();
+        }
+        EntityManager em = Provider.getEntityManager();
+        Provider provider = em.getReference(Provider.class, providerId);
+
+        // Compare with the findings as they stood, which an empty evaluation clears, rather than
+        // with the last history rows, which it leaves behind
+        Set<String> previousKeys = upsertFindings(em, provider, evaluatedAt, results);
+
+        if (results.isEmpty()) {
+            return 0;
+        }
+        if (skipUnchanged && previousKeys.equals(keysOf(results))) {
+            return 0;
+        }
+
+        int written = 0;
+        for (RuleEvaluationResponse.RuleResult result : results) {
+            RuleEvaluation evaluation = new RuleEvaluation();
+            evaluation.provider = provider;
+            evaluation.ruleName = result.ruleName;
+            evaluation.triggered = result.triggered;
+            evaluation.severity = result.severity;
+            evaluation.message = result.message;
+            evaluation.metadata = result.metadata;
+            evaluation.facts = result.facts;
+            evaluation.evaluatedAt = evaluatedAt;
+            em.persist(evaluation);
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Persists the results of many evaluations, committing every chunkSize
+     * providers in its own transaction so a long batch never holds one huge
+     * transaction (or persistence context) open.
+     *
+     * @return number of rows inserted
+     */
+    public int writeBatch(Map<Long, RuleEvaluationResponse> responses) {
+        List<Map.Entry<Long, RuleEvaluationResponse>> entries = new ArrayList<>(responses.entrySet());
+        int written = 0;
+        for (int from = 0; from < entries.size(); from += chunkSize) {
+            List<Map.Entry<Long, RuleEvaluationResponse>> chunk =
+                entries.subList(from, Math.min(from + chunkSize, entries.size()));
+            written += QuarkusTransaction.requiringNew().call(() -> {
+                int count = 0;
+                for (Map.Entry<Long, RuleEvaluationResponse> entry : chunk) {
+                    RuleEvaluationResponse response = entry.getValue();
+                    if (response.success) {
+                        count += write(entry.getKey(), response.evaluatedAt, response.results);
+                    }
+                }
+                return count;
+            });
+        }
+        logger.debug("Persisted {} rule evaluations for {} providers", written, entries.size());
+        return written;
+    }
+
+    /**
+     * Brings rule_findings in line with this evaluation: rows for results that
+     * fired again are updated in place, new results are inserted and findings
+     * that no longer fire are removed.
+     *
+     * @return keys of the findings as they were before this evaluation
+     */
+    private Set<String> upsertFindings(EntityManager em, Provider provider, LocalDateTime evaluatedAt,
+                                List<RuleEvaluationResponse.RuleResult> results) {
+        Map<String, RuleFinding> existing = new HashMap<>();
+        Set<String> previousKeys = new HashSet<>();
+        for (RuleFinding finding : em.createQuery(
+                "FROM RuleFinding f WHERE f.provider.id = :providerId", RuleFinding.class)
+                .setParameter("providerId", provider.id)
+                .getResultList()) {
+            existing.put(findingKey(finding.ruleName, finding.subject), finding);
+            previousKeys.add(keyOf(finding.ruleName, Boolean.TRUE.equals(finding.triggered), finding.severity,
+                finding.message, finding.metadata));
+        }
+
+        Map<String, RuleFinding> current = new HashMap<>();
+        for (RuleEvaluationResponse.RuleResult result : results) {
+            String subject = Objects.toString(result.subject, "");
+            String key = findingKey(result.ruleName, subject);
+            RuleFinding finding = current.get(key);
+            if (finding == null) {
+                finding = existing.remove(key);
+            }
+            if (finding == null) {
+                finding = new RuleFinding();
+                finding.provider = provider;
+                finding.ruleName = result.ruleName;
+                finding.subject = subject;
+                finding.firstSeenAt = evaluatedAt;
+                em.persist(finding);
+            }
+            current.put(key, finding);
+            finding.triggered = result.triggered;
+            finding.severity = result.severity;
+            finding.message = result.message;
+            finding.metadata = result.metadata;
+            finding.facts = result.facts != null ? String.join("\n", result.facts) : null;
+            finding.evaluatedAt = evaluatedAt;
+        }
+
+        for (RuleFinding stale : existing.values()) {
+            em.remove(stale);
+        }
+        return previousKeys;
+    }
+
+    private static String findingKey(String ruleName, String subject) {
+        return ruleName + '\u0000' + subject;
+    }
+
+    private static Set<String> keysOf(List<RuleEvaluationResponse.RuleResult> results) {
+        Set<String> keys = new HashSet<>();
+        for (RuleEvaluationResponse.RuleResult result : results) {
+            keys.add(keyOf(result.ruleName, result.triggered, result.severity, result.message, result.metadata));
+        }
+        return keys;
+    }
+
+    private static String keyOf(String ruleName, boolean triggered, String severity, String message, String metadata) {
+        return ruleName + '\u0000' + triggered + '\u0000' + Objects.toString(severity, "")
+            + '\u0000' + Objects.toString(message, "") + '\u0000' + Objects.toString(metadata, "");
+    }
+}
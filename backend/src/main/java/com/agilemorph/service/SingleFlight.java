@@ -0,0 +1,74 @@
+package com.agilemorph.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent calls with the same key share one in-flight call: the
+ * first caller runs it, and callers arriving before it returns wait for it
+ * and get the same result, or the same exception. Nothing is kept once it
+ * returns, so this is not a cache: a caller that joins gets a result whose
+ * load started at most one call's duration before its own.
+ *
+ * Counts calls run and calls coalesced into another as
+ * {@code agilemorph.single.flight.calls}, tagged with the flight's name.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    SingleFlight(String name, MeterRegistry registry) {
+        this.executed = counter(name, "executed", registry);
+        this.coalesced = counter(name, "coalesced", registry);
+    }
+
+    V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            coalesced.increment();
+            return join(leader);
+        }
+        executed.increment();
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // Rethrow what the call threw, so callers can tell a NotFoundException from a failure
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter counter(String name, String outcome, MeterRegistry registry) {
+        return Counter.builder("agilemorph.single.flight.calls")
+            .description("Calls run, and calls that shared another's in-flight result")
+            .tag("flight", name)
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+}
@@ -0,0 +1,118 @@
+package com.agilemorph.validation;
+
+/**
+ * Allocation-free parsing and validation of National Provider Identifiers.
+ *
+ * An NPI is ten digits whose last digit is a Luhn check digit computed over
+ * the first nine with the card issuer prefix 80840 in front. Spaces and
+ * hyphens are accepted as separators; any other character makes the value
+ * invalid. Nothing here creates objects, so validating a roster costs no
+ * garbage.
+ */
+public final class Npi {
+
+    public static final int LENGTH = 10;
+
+    /** Luhn sum of the 80840 prefix once the NPI digits are lined up after it. */
+    private static final int PREFIX_SUM = 24;
+
+    private Npi() {
+    }
+
+    /**
+     * Returns the NPI as a number, or -1 if the value is not a well-formed NPI
+     * with a correct check digit.
+     */
+    public static long parse(CharSequence npi) {
+        if (npi == null) {
+            return -1;
+        }
+        long value = 0;
+        int digits = 0;
+        int sum = PREFIX_SUM;
+        for (int i = 0, length = npi.length(); i < length; i++) {
+            char c = npi.charAt(i);
+            if (c == ' ' || c == '-') {
+                continue;
+            }
+            if (c < '0' || c > '9' || digits == LENGTH) {
+                return -1;
+            }
+            int digit = c - '0';
+            value = value * 10 + digit;
+            // Counting from the check digit, every second digit is doubled
+            sum += (digits & 1) == 0 && digits < LENGTH - 1 ? doubled(digit) : digit;
+            digits++;
+        }
+        return digits == LENGTH && sum % 10 == 0 ? value : -1;
+    }
+
+    /**
+     * Returns the ten digits as a number without checking the check digit, or
+     * -1 if the value is not ten digits. Used to look up and store identifiers
+     * that predate validation.
+     */
+    public static long parseDigits(CharSequence npi) {
+        if (npi == null) {
+            return -1;
+        }
+        long value = 0;
+        int digits = 0;
+        for (int i = 0, length = npi.length(); i < length; i++) {
+            char c = npi.charAt(i);
+            if (c == ' ' || c == '-') {
+                continue;
+            }
+            if (c < '0' || c > '9' || digits == LENGTH) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+            digits++;
+        }
+        return digits == LENGTH ? value : -1;
+    }
+
+    public static boolean isValid(CharSequence npi) {
+        return parse(npi) >= 0;
+    }
+
+    /**
+     * Computes the check digit for the first nine digits of an NPI.
+     */
+    public static int checkDigit(long base) {
+        if (base < 0 || base >= 1_000_000_000L) {
+            throw new IllegalArgumentException("NPI base must have at most nine digits: " + base);
+        }
+        int sum = PREFIX_SUM;
+        for (int position = LENGTH - 2; position >= 0; position--) {
+            int digit = (int) (base % 10);
+            base /= 10;
+            sum += (position & 1) == 0 ? doubled(digit) : digit;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    /**
+     * Formats a nine digit base as a ten digit NPI with its check digit.
+     */
+    public static String withCheckDigit(long base) {
+        return format(base * 10 + checkDigit(base));
+    }
+
+    /**
+     * Formats a numeric NPI as its canonical zero-padded ten digit string.
+     */
+    public static String format(long npi) {
+        char[] digits = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + npi % 10);
+            npi /= 10;
+        }
+        return new String(digits);
+    }
+
+    private static int doubled(int digit) {
+        int twice = digit * 2;
+        return twice > 9 ? twice - 9 : twice;
+    }
+}
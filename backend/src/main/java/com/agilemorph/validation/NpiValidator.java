@@ -0,0 +1,12 @@
+package com.agilemorph.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class NpiValidator implements ConstraintValidator<ValidNpi, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || Npi.isValid(value);
+    }
+}
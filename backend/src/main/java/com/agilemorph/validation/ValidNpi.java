@@ -0,0 +1,27 @@
+package com.agilemorph.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated string must be a ten digit NPI with a valid Luhn check digit.
+ * Spaces and hyphens are tolerated; null is considered valid.
+ */
+@Documented
+@Constraint(validatedBy = NpiValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidNpi {
+
+    String message() default "must be a 10 digit NPI with a valid check digit";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
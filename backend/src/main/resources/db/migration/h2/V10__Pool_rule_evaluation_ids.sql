@@ -0,0 +1,8 @@
+-- Rule evaluations and findings are written in JDBC batches; Hibernate's pooled optimizer hands
+-- out ids 50 at a time, so the sequences step by the same amount (see allocationSize). The
+-- optimizer takes each value as the top of a block of 50, so H2, whose next value does not
+-- step ahead with the new increment, is restarted a block past the ids already used
+ALTER SEQUENCE rule_evaluations_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM rule_evaluations)
+    INCREMENT BY 50;
+ALTER SEQUENCE rule_findings_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM rule_findings)
+    INCREMENT BY 50;
@@ -0,0 +1,2 @@
+-- Optimistic locking for provider updates
+ALTER TABLE providers ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
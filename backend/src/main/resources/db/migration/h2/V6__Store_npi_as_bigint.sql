@@ -0,0 +1,6 @@
+-- The UNIQUE constraint already indexes npi; idx_providers_npi was a second B-tree over the same column
+DROP INDEX IF EXISTS idx_providers_npi;
+
+-- Store NPI as a number so the remaining unique index compares 8 byte keys instead of strings
+UPDATE providers SET npi = REGEXP_REPLACE(npi, '[^0-9]', '');
+ALTER TABLE providers ALTER COLUMN npi SET DATA TYPE BIGINT;
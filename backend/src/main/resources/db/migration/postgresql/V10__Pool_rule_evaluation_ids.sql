@@ -0,0 +1,6 @@
+-- Rule evaluations and findings are written in JDBC batches; Hibernate's pooled optimizer hands
+-- out ids 50 at a time, so the sequences step by the same amount (see allocationSize). The
+-- optimizer takes each value as the top of a block of 50; the next value is already a full
+-- step past the last one handed out, so the first block never reaches ids already used
+ALTER SEQUENCE rule_evaluations_seq INCREMENT BY 50;
+ALTER SEQUENCE rule_findings_seq INCREMENT BY 50;
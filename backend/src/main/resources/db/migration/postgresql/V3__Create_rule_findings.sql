@@ -0,0 +1,30 @@
+-- Current-state rule findings: one row per provider, rule and subject,
+-- upserted on every evaluation. rule_evaluations keeps the full history.
+CREATE SEQUENCE IF NOT EXISTS rule_findings_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE rule_findings (
+    id BIGINT PRIMARY KEY DEFAULT nextval('rule_findings_seq'),
+    provider_id BIGINT NOT NULL REFERENCES providers(id) ON DELETE CASCADE,
+    rule_name VARCHAR(100) NOT NULL,
+    subject VARCHAR(100) NOT NULL DEFAULT '',
+    triggered BOOLEAN NOT NULL DEFAULT FALSE,
+    severity VARCHAR(20),
+    message TEXT,
+    metadata TEXT,
+    facts TEXT,
+    first_seen_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    evaluated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_rule_findings_provider_rule_subject UNIQUE (provider_id, rule_name, subject)
+);
+
+-- Seed current findings from the latest sample evaluations
+INSERT INTO rule_findings (provider_id, rule_name, subject, triggered, severity, message, metadata, first_seen_at, evaluated_at)
+SELECT e.provider_id, e.rule_name, '', e.triggered, e.severity, e.message, e.metadata, e.evaluated_at, e.evaluated_at
+FROM rule_evaluations e
+WHERE e.id = (
+    SELECT MAX(l.id) FROM rule_evaluations l
+    WHERE l.provider_id = e.provider_id AND l.rule_name = e.rule_name
+);
+
+-- History is only read newest-first, per provider, by the paginated history endpoint
+CREATE INDEX idx_rule_evaluations_provider_evaluated_at ON rule_evaluations(provider_id, evaluated_at);
@@ -0,0 +1,18 @@
+-- Durable state for chunked jobs over the provider table (bulk normalization, ...)
+CREATE SEQUENCE IF NOT EXISTS batch_jobs_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE batch_jobs (
+    id BIGINT PRIMARY KEY DEFAULT nextval('batch_jobs_seq'),
+    job_type VARCHAR(30) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    checkpoint_id BIGINT NOT NULL DEFAULT 0,
+    total BIGINT,
+    processed BIGINT NOT NULL DEFAULT 0,
+    updated BIGINT NOT NULL DEFAULT 0,
+    failed BIGINT NOT NULL DEFAULT 0,
+    error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    finished_at TIMESTAMP
+);
@@ -0,0 +1,32 @@
+-- The UNIQUE constraint already indexes npi; idx_providers_npi was a second B-tree over the same column
+DROP INDEX IF EXISTS idx_providers_npi;
+
+-- Legacy NPIs predate validation. Stop with the offending ids rather than a cast or unique
+-- violation if any is not ten digits once separators are removed, or if two become the same.
+DO $$
+DECLARE
+    offending TEXT;
+BEGIN
+    SELECT string_agg(id || ' (' || quote_literal(npi) || ')', ', ' ORDER BY id) INTO offending
+    FROM providers
+    WHERE regexp_replace(npi, '[^0-9]', '', 'g') !~ '^[0-9]{10}$';
+    IF offending IS NOT NULL THEN
+        RAISE EXCEPTION 'Cannot store NPI as BIGINT: providers % do not have a ten digit NPI. '
+            'Correct them and rerun the migration.', offending;
+    END IF;
+
+    SELECT string_agg(ids, '; ') INTO offending
+    FROM (SELECT string_agg(id::TEXT, ', ' ORDER BY id) AS ids
+          FROM providers
+          GROUP BY regexp_replace(npi, '[^0-9]', '', 'g')
+          HAVING count(*) > 1) duplicates;
+    IF offending IS NOT NULL THEN
+        RAISE EXCEPTION 'Cannot store NPI as BIGINT: these providers have the same NPI once separators '
+            'are removed: %. Merge or correct them and rerun the migration.', offending;
+    END IF;
+END $$;
+
+-- Store NPI as a number so the remaining unique index compares 8 byte keys instead of strings.
+-- Separators left over from before validation are stripped; the unique constraint is rebuilt in place.
+ALTER TABLE providers
+    ALTER COLUMN npi TYPE BIGINT USING regexp_replace(npi, '[^0-9]', '', 'g')::BIGINT;
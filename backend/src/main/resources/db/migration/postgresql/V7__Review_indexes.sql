@@ -0,0 +1,26 @@
+-- Index review: index the shapes ProviderService and RuleEvaluationWriter actually query,
+-- and drop single-column indexes that are low-cardinality or a prefix of another index.
+
+-- Status lists filter by verification_status and page in id order
+DROP INDEX IF EXISTS idx_providers_verification_status;
+CREATE INDEX idx_providers_status_id ON providers(verification_status, id);
+
+-- Duplicate detection matches LOWER(first_name), LOWER(last_name) and date_of_birth
+CREATE INDEX idx_providers_name_dob ON providers(LOWER(last_name), LOWER(first_name), date_of_birth);
+
+-- Licenses are read per provider and scanned by expiry; the composite covers provider_id lookups too
+DROP INDEX IF EXISTS idx_licenses_provider_id;
+CREATE INDEX idx_licenses_provider_expiry ON licenses(provider_id, expiry_date);
+
+-- History pages are ordered by (evaluated_at, id) per provider; this replaces both the
+-- provider_id index and the V3 (provider_id, evaluated_at) index
+DROP INDEX IF EXISTS idx_rule_evaluations_provider_id;
+DROP INDEX IF EXISTS idx_rule_evaluations_provider_evaluated_at;
+CREATE INDEX idx_rule_evaluations_provider_evaluated_id ON rule_evaluations(provider_id, evaluated_at, id);
+
+-- Nothing filters history by rule name or by the boolean triggered flag
+DROP INDEX IF EXISTS idx_rule_evaluations_rule_name;
+DROP INDEX IF EXISTS idx_rule_evaluations_triggered;
+
+-- Audit rows are only read per provider; the timestamp index just slowed every insert
+DROP INDEX IF EXISTS idx_audit_logs_timestamp;
@@ -0,0 +1,17 @@
+-- Import jobs: the spooled roster a job reads, and the rows it rejected
+ALTER TABLE batch_jobs ADD COLUMN source VARCHAR(500);
+ALTER TABLE batch_jobs ADD COLUMN source_format VARCHAR(20);
+
+CREATE SEQUENCE IF NOT EXISTS batch_job_errors_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE batch_job_errors (
+    id BIGINT PRIMARY KEY DEFAULT nextval('batch_job_errors_seq'),
+    job_id BIGINT NOT NULL REFERENCES batch_jobs(id) ON DELETE CASCADE,
+    source_row BIGINT NOT NULL,
+    source_line BIGINT,
+    npi VARCHAR(20),
+    error TEXT
+);
+
+-- Errors are only read per job, in input order
+CREATE INDEX idx_batch_job_errors_job_row ON batch_job_errors(job_id, source_row);
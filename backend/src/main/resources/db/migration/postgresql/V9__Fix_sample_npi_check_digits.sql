@@ -0,0 +1,25 @@
+-- The sample providers were seeded with NPIs whose last digit is not a valid
+-- check digit, so echoing a seeded provider's own NPI back on PUT or PATCH was
+-- rejected. Keep the first nine digits and replace the check digit, unless the
+-- corrected NPI is already taken.
+UPDATE providers p
+SET npi = CASE p.npi
+        WHEN 1234567890 THEN 1234567893
+        WHEN 2345678901 THEN 2345678900
+        WHEN 3456789012 THEN 3456789015
+        WHEN 4567890123 THEN 4567890122
+        WHEN 5678901234 THEN 5678901237
+    END,
+    version = p.version + 1,
+    updated_at = CURRENT_TIMESTAMP
+WHERE p.npi IN (1234567890, 2345678901, 3456789012, 4567890123, 5678901234)
+  AND NOT EXISTS (
+      SELECT 1 FROM providers taken
+      WHERE taken.npi = CASE p.npi
+          WHEN 1234567890 THEN 1234567893
+          WHEN 2345678901 THEN 2345678900
+          WHEN 3456789012 THEN 3456789015
+          WHEN 4567890123 THEN 4567890122
+          WHEN 5678901234 THEN 5678901237
+      END
+  );
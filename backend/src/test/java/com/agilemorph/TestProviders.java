@@ -0,0 +1,35 @@
+package com.agilemorph;
+
+import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.validation.Npi;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Providers for tests: each gets an NPI with a valid check digit that no
+ * other provider in the test run has.
+ */
+public final class TestProviders {
+
+    // Nine digit NPI bases, clear of the NPIs in the seed data
+    private static final AtomicLong NEXT_NPI_BASE = new AtomicLong(900_000_000L);
+
+    private TestProviders() {
+    }
+
+    /** An NPI not handed out before in this test run. */
+    public static String npi() {
+        return Npi.withCheckDigit(NEXT_NPI_BASE.getAndIncrement());
+    }
+
+    /** A provider with a fresh NPI, the given names and a date of birth, and nothing else. */
+    public static ProviderDto provider(String firstName, String lastName) {
+        ProviderDto provider = new ProviderDto();
+        provider.npi = npi();
+        provider.firstName = firstName;
+        provider.lastName = lastName;
+        provider.dateOfBirth = LocalDate.of(1980, 1, 1);
+        return provider;
+    }
+}
@@ -0,0 +1,43 @@
+package com.agilemorph.benchmark;
+
+import com.agilemorph.validation.Npi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the regex strip NPI handling used to do with {@link Npi#parse}.
+ * Run with {@code mvn -Pbenchmark verify -Djmh.include=NpiBenchmark}; add
+ * {@code -prof gc} to the JMH arguments to see allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NpiBenchmark {
+
+    @Param({"1234567893", "123-456-7893", "1234567890"})
+    public String npi;
+
+    @Benchmark
+    public boolean regex() {
+        String digits = npi.replaceAll("\\D", "");
+        return digits.matches("\\d{10}");
+    }
+
+    @Benchmark
+    public long handWritten() {
+        return Npi.parse(npi);
+    }
+}
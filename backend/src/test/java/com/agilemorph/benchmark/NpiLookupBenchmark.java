@@ -0,0 +1,99 @@
+package com.agilemorph.benchmark;
+
+import com.agilemorph.validation.Npi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point lookups by NPI against the old layout (VARCHAR(10) with a UNIQUE
+ * constraint plus idx_providers_npi) and the V6 layout (BIGINT with only the
+ * unique index), on an in-memory H2 database. Index sizes on PostgreSQL are
+ * compared by src/test/resources/benchmark/npi-index-size.sql.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NpiLookupBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    private Connection connection;
+    private PreparedStatement byVarchar;
+    private PreparedStatement byBigint;
+    private String[] npis;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:npi-benchmark");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE providers_varchar (id BIGINT PRIMARY KEY, npi VARCHAR(10) UNIQUE NOT NULL)");
+            statement.execute("CREATE INDEX idx_providers_varchar_npi ON providers_varchar(npi)");
+            statement.execute("CREATE TABLE providers_bigint (id BIGINT PRIMARY KEY, npi BIGINT UNIQUE NOT NULL)");
+        }
+        npis = new String[rows];
+        try (PreparedStatement varchar = connection.prepareStatement("INSERT INTO providers_varchar VALUES (?, ?)");
+             PreparedStatement bigint = connection.prepareStatement("INSERT INTO providers_bigint VALUES (?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                npis[i] = Npi.withCheckDigit(100_000_000L + i * 7L);
+                varchar.setLong(1, i);
+                varchar.setString(2, npis[i]);
+                varchar.addBatch();
+                bigint.setLong(1, i);
+                bigint.setLong(2, Npi.parse(npis[i]));
+                bigint.addBatch();
+            }
+            varchar.executeBatch();
+            bigint.executeBatch();
+        }
+        byVarchar = connection.prepareStatement("SELECT id FROM providers_varchar WHERE npi = ?");
+        byBigint = connection.prepareStatement("SELECT id FROM providers_bigint WHERE npi = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long varcharLookup() throws SQLException {
+        byVarchar.setString(1, npis[ThreadLocalRandom.current().nextInt(rows)]);
+        return firstId(byVarchar);
+    }
+
+    @Benchmark
+    public long bigintLookup() throws SQLException {
+        // Includes parsing the REST string, as ProviderService pays that too
+        byBigint.setLong(1, Npi.parseDigits(npis[ThreadLocalRandom.current().nextInt(rows)]));
+        return firstId(byBigint);
+    }
+
+    private static long firstId(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+}
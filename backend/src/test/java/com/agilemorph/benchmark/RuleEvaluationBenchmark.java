@@ -0,0 +1,174 @@
+package com.agilemorph.benchmark;
+
+import com.agilemorph.dto.LicensePolicy;
+import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.dto.RuleEvaluationResponse;
+import com.agilemorph.model.License;
+import com.agilemorph.service.RuleEngineService;
+import org.drools.model.codegen.ExecutableModelProject;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.utils.KieHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Compares the rules as they were before the license policy decision table,
+ * which read the expiry flags straight off each license, with the current
+ * ones, which join each provider to a {@link LicensePolicy} fact per license
+ * for the table to fill in. Both test the provider itself with {@code eval};
+ * the difference measured is what the table costs per evaluation.
+ * The current rules are the executable model the build generates; the
+ * earlier ones, kept under benchmark/eval-rules, are compiled to the same
+ * form in-process. Both are evaluated the way a roster run does: one
+ * session per batch, cleared after every provider.
+ * Run with {@code mvn -Pbenchmark verify -Djmh.include=RuleEvaluationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleEvaluationBenchmark {
+
+    private static final String[] EVAL_RULE_FILES = {
+        "benchmark/eval-rules/license-expiry-rule.drl",
+        "benchmark/eval-rules/duplicate-detection-rule.drl"
+    };
+
+    /** Licenses and practice locations per provider. */
+    @Param({"2", "8"})
+    public int childrenPerProvider;
+
+    private static final int PROVIDERS = 200;
+
+    private static final LocalDate AS_OF = LocalDate.of(2026, 1, 1);
+
+    private List<ProviderDto> providers;
+    private KieSession evalSession;
+    private KieSession currentSession;
+
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Outside Quarkus nothing sets a log level, so Drools' debug logging would
+        // be buffered for a log handler that never starts
+        Logger.getLogger("").setLevel(java.util.logging.Level.INFO);
+        // The eval rules log every firing to stdout, which would swamp the matching
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        providers = providers(PROVIDERS, childrenPerProvider, AS_OF);
+        evalSession = evalRulesKieBase().newKieSession();
+        currentSession = KieServices.Factory.get().newKieClasspathContainer().getKieBase().newKieSession();
+        int evalResults = evalRules();
+        int currentResults = currentRules();
+        if (evalResults != currentResults) {
+            throw new IllegalStateException("Rule sets disagree: " + evalResults + " vs " + currentResults + " results");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        evalSession.dispose();
+        currentSession.dispose();
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public int evalRules() {
+        return evaluate(evalSession, KieSession::insert);
+    }
+
+    @Benchmark
+    public int currentRules() {
+        return evaluate(currentSession, (session, provider) -> RuleEngineService.insertProvider(session, provider, AS_OF));
+    }
+
+    private int evaluate(KieSession session, BiConsumer<KieSession, ProviderDto> insert) {
+        int results = 0;
+        for (ProviderDto provider : providers) {
+            insert.accept(session, provider);
+            session.insert(new HashMap<>());
+            session.fireAllRules();
+            for (Object fact : session.getObjects()) {
+                if (fact instanceof RuleEvaluationResponse.RuleResult) {
+                    results++;
+                }
+            }
+            for (FactHandle handle : new ArrayList<FactHandle>(session.getFactHandles())) {
+                session.delete(handle);
+            }
+        }
+        return results;
+    }
+
+    private static KieBase evalRulesKieBase() {
+        KieHelper helper = new KieHelper();
+        for (String file : EVAL_RULE_FILES) {
+            helper.addResource(ResourceFactory.newClassPathResource(file), ResourceType.DRL);
+        }
+        return helper.build(ExecutableModelProject.class);
+    }
+
+    /** Providers with a mix of valid, expiring and expired licenses and of location taxonomies. */
+    static List<ProviderDto> providers(int count, int children, LocalDate asOf) {
+        List<ProviderDto> providers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ProviderDto provider = new ProviderDto();
+            provider.id = (long) i;
+            provider.npi = String.valueOf(1_000_000_000L + i);
+            provider.firstName = "Provider" + i;
+            provider.lastName = i % 10 == 0 ? "Provider" + i : "Name" + i;
+            provider.taxonomyCode = "207Q00000X";
+            provider.licenses = new ArrayList<>();
+            provider.practiceLocations = new ArrayList<>();
+            for (int j = 0; j < children; j++) {
+                ProviderDto.LicenseDto license = new ProviderDto.LicenseDto();
+                license.licenseNumber = "L" + i + "-" + j;
+                license.state = "CA";
+                license.licenseType = "MD";
+                license.expiryDate = asOf.plusDays((i + j) % 5 == 0 ? -10 : (i + j) % 5 == 1 ? 10 : 400);
+                provider.licenses.add(license);
+
+                ProviderDto.PracticeLocationDto location = new ProviderDto.PracticeLocationDto();
+                location.name = "Location " + j;
+                location.taxonomyCode = (i + j) % 3 == 0 ? "208D00000X" : provider.taxonomyCode;
+                provider.practiceLocations.add(location);
+            }
+            // The eval rules read the flags; the table keeps CA at the default window
+            for (ProviderDto.LicenseDto license : provider.licenses) {
+                license.expired = License.isExpired(license.expiryDate, asOf);
+                license.expiringSoon = License.isExpiringSoon(license.expiryDate, LicensePolicy.DEFAULT_EXPIRING_SOON_DAYS, asOf);
+            }
+            providers.add(provider);
+        }
+        return providers;
+    }
+}
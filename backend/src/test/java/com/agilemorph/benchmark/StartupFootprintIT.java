@@ -0,0 +1,141 @@
+package com.agilemorph.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Starts the packaged application, native executable if one was built,
+ * otherwise the JVM jar, and reports time to ready, RSS when ready and RSS
+ * after the first rule evaluation, which also checks the precompiled rules
+ * loaded. Part of the native integration tests:
+ * {@code mvn verify -Pnative -Dagilemorph.it.postgres.url=jdbc:postgresql://localhost:5432/agilemorph_it}.
+ *
+ * Needs a PostgreSQL database (migrated at startup) and /proc for RSS; skipped
+ * without them. Set {@code agilemorph.it.max-startup-ms} or
+ * {@code agilemorph.it.max-rss-mb} to fail on regressions.
+ */
+public class StartupFootprintIT {
+
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final String EXPIRED_LICENSE_REQUEST = "{\"provider\": {\"npi\": \"1234567893\", "
+        + "\"firstName\": \"Ann\", \"lastName\": \"Lee\", \"licenses\": [{\"licenseNumber\": \"A1\", "
+        + "\"state\": \"CA\", \"licenseType\": \"MD\", \"expiryDate\": \"2020-01-01\", \"expired\": true}]}}";
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void testStartupTimeAndResidentMemory() throws Exception {
+        String url = System.getProperty("agilemorph.it.postgres.url", System.getenv("AGILEMORPH_IT_POSTGRES_URL"));
+        assumeTrue(url != null, "No PostgreSQL configured for the startup benchmark");
+        assumeTrue(Files.isDirectory(Path.of("/proc/self")), "RSS is read from /proc");
+
+        int port = freePort();
+        List<String> command = launchCommand(List.of(
+            "-Dquarkus.http.port=" + port,
+            "-Dquarkus.datasource.jdbc.url=" + url,
+            "-Dquarkus.datasource.username=" + System.getProperty("agilemorph.it.postgres.username", "agilemorph"),
+            "-Dquarkus.datasource.password=" + System.getProperty("agilemorph.it.postgres.password", "agilemorph123")));
+        String mode = command.contains("-jar") ? "jvm" : "native";
+
+        Path log = Path.of("target", "startup-footprint-" + mode + ".log");
+        long started = System.nanoTime();
+        Process app = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+        try {
+            awaitReady(app, port, log);
+            long startupMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+            long readyRssKb = rssKb(app.pid());
+
+            HttpResponse<String> evaluation = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/rules/evaluate"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(EXPIRED_LICENSE_REQUEST))
+                    .build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, evaluation.statusCode(), evaluation.body());
+            assertTrue(evaluation.body().contains("license-expiry-rule"), "Rules did not fire: " + evaluation.body());
+            long evaluatedRssKb = rssKb(app.pid());
+
+            System.out.printf("Startup footprint (%s): ready in %d ms, RSS %d MB when ready, %d MB after first evaluation%n",
+                mode, startupMillis, readyRssKb / 1024, evaluatedRssKb / 1024);
+
+            Long maxStartup = Long.getLong("agilemorph.it.max-startup-ms");
+            if (maxStartup != null) {
+                assertTrue(startupMillis <= maxStartup, "Startup took " + startupMillis + " ms");
+            }
+            Long maxRss = Long.getLong("agilemorph.it.max-rss-mb");
+            if (maxRss != null) {
+                assertTrue(evaluatedRssKb / 1024 <= maxRss, "RSS reached " + evaluatedRssKb / 1024 + " MB");
+            }
+        } finally {
+            app.destroy();
+            app.waitFor();
+        }
+    }
+
+    /** The native executable when the native profile built one, otherwise the JVM jar. */
+    private static List<String> launchCommand(List<String> systemProperties) {
+        List<String> command = new ArrayList<>();
+        String nativeImage = System.getProperty("native.image.path");
+        if (nativeImage != null && Files.isExecutable(Path.of(nativeImage))) {
+            command.add(nativeImage);
+            command.addAll(systemProperties);
+            return command;
+        }
+        Path jar = Path.of("target", "quarkus-app", "quarkus-run.jar");
+        assumeTrue(Files.exists(jar), "Nothing packaged to start");
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(systemProperties);
+        command.add("-jar");
+        command.add(jar.toString());
+        return command;
+    }
+
+    private void awaitReady(Process app, int port, Path log) throws Exception {
+        HttpRequest ready = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/q/health/ready")).build();
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            assertTrue(app.isAlive(), "Application exited during startup, see " + log);
+            try {
+                if (http.send(ready, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        fail("Application not ready within " + READY_TIMEOUT + ", see " + log);
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        throw new IllegalStateException("No VmRSS for process " + pid);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.agilemorph.resource;
+
+import com.agilemorph.TestProviders;
+import com.agilemorph.dto.ProviderDto;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class ImportJobResourceTest {
+
+    @Test
+    void testSubmitAndFollowImportJob() {
+        String ndjson = "{\"npi\":\"" + TestProviders.npi()
+            + "\",\"firstName\":\"Mary\",\"lastName\":\"Jackson\",\"dateOfBirth\":\"1921-04-09\"}\n"
+            + "{\"npi\":\"1234567890\",\"firstName\":\"Bad\",\"lastName\":\"Npi\",\"dateOfBirth\":\"1921-04-09\"}\n";
+
+        int jobId = given()
+            .contentType("application/x-ndjson")
+            .body(ndjson.getBytes(StandardCharsets.UTF_8))
+        .when()
+            .post("/api/import-jobs")
+        .then()
+            .statusCode(202)
+            .header("Location", containsString("/api/import-jobs/"))
+            .body("jobType", equalTo("IMPORT"))
+            .body("total", equalTo(2))
+            .extract().path("id");
+
+        // The progress stream ends once the job stops running
+        String events = given()
+            .accept("text/event-stream")
+        .when()
+            .get("/api/import-jobs/" + jobId + "/progress")
+        .then()
+            .statusCode(200)
+            .extract().asString();
+        assertTrue(events.contains("\"status\":\"COMPLETED\""), events);
+
+        given()
+        .when()
+            .get("/api/import-jobs/" + jobId)
+        .then()
+            .statusCode(200)
+            .body("processed", equalTo(2))
+            .body("updated", equalTo(1))
+            .body("failed", equalTo(1));
+
+        given()
+        .when()
+            .get("/api/import-jobs/" + jobId + "/errors")
+        .then()
+            .statusCode(200)
+            .body("errors[0].row", equalTo(2));
+
+        given()
+            .contentType(ContentType.JSON)
+        .when()
+            .post("/api/import-jobs/" + jobId + "/cancel")
+        .then()
+            .statusCode(409);
+
+        given()
+        .when()
+            .get("/api/import-jobs/999999")
+        .then()
+            .statusCode(404);
+    }
+
+    @Test
+    void testSubmitBulkJsonArray() throws InterruptedException {
+        ProviderDto provider = new ProviderDto();
+        provider.npi = TestProviders.npi();
+        provider.firstName = "Annie";
+        provider.lastName = "Easley";
+        provider.dateOfBirth = LocalDate.of(1933, 4, 23);
+
+        int jobId = given()
+            .contentType(ContentType.JSON)
+            .body(List.of(provider))
+        .when()
+            .post("/api/import-jobs")
+        .then()
+            .statusCode(202)
+            .extract().path("id");
+
+        String status = "PENDING";
+        for (int i = 0; i < 100 && !status.equals("COMPLETED"); i++) {
+            Thread.sleep(50);
+            status = given().get("/api/import-jobs/" + jobId).then().extract().path("status");
+        }
+        assertEquals("COMPLETED", status);
+
+        given()
+        .when()
+            .get("/api/providers/npi/" + provider.npi)
+        .then()
+            .statusCode(200)
+            .body("firstName", equalTo("Annie"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.agilemorph.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+public class LicenseResourceTest {
+
+    @Test
+    void testGetExpiryForecast() {
+        given()
+            .queryParam("horizons", "60,30")
+            .queryParam("asOf", "2090-01-01")
+        .when()
+            .get("/api/licenses/expiry-forecast")
+        .then()
+            .statusCode(200)
+            .header("Cache-Control", containsString("max-age"))
+            .body("asOf", equalTo("2090-01-01"))
+            .body("horizons", contains(30, 60))
+            .body("totals", hasKey("30"))
+            .body("buckets", notNullValue());
+
+        given()
+        .when()
+            .get("/api/licenses/expiry-forecast")
+        .then()
+            .statusCode(200)
+            .body("horizons", contains(30, 60, 90));
+    }
+
+    @Test
+    void testGetExpiryForecastRejectsBadParameters() {
+        given()
+            .queryParam("horizons", "30,soon")
+        .when()
+            .get("/api/licenses/expiry-forecast")
+        .then()
+            .statusCode(400);
+
+        given()
+            .queryParam("asOf", "next week")
+        .when()
+            .get("/api/licenses/expiry-forecast")
+        .then()
+            .statusCode(400);
+    }
+}
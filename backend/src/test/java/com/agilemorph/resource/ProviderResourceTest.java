@@ -1,5 +1,6 @@
 package com.agilemorph.resource;
 
+import com.agilemorph.TestProviders;
 import com.agilemorph.dto.ProviderDto;
 import com.agilemorph.model.Provider;
 import io.quarkus.test.junit.QuarkusTest;
@@ -26,16 +27,18 @@ public class ProviderResourceTest {
     @BeforeEach
     @Transactional
     void resetDB() {
-        // delete dependent audit logs first, then providers
+        // delete dependent audit logs and locations first, then providers
         io.quarkus.hibernate.orm.panache.Panache.getEntityManager()
             .createQuery("DELETE FROM AuditLog").executeUpdate();
+        io.quarkus.hibernate.orm.panache.Panache.getEntityManager()
+            .createQuery("DELETE FROM PracticeLocation").executeUpdate();
         Provider.deleteAll();
     }
     
     @BeforeEach
     void setUp() {
         sampleProvider = new ProviderDto();
-        sampleProvider.npi = String.format("%010d", System.nanoTime() % 1_000_000_0000L);
+        sampleProvider.npi = TestProviders.npi();
         sampleProvider.firstName = "John";
         sampleProvider.lastName = "Smith";
         sampleProvider.middleName = "Michael";
@@ -78,6 +81,53 @@ public class ProviderResourceTest {
             .statusCode(400);
     }
     
+    @Test
+    void testCreateProviderWithInvalidNpi() {
+        // Wrong check digit
+        sampleProvider.npi = "1234567890";
+        
+        given()
+            .contentType(ContentType.JSON)
+            .body(sampleProvider)
+        .when()
+            .post("/api/providers")
+        .then()
+            .statusCode(400);
+        
+        given()
+            .contentType(ContentType.JSON)
+            .body(List.of(sampleProvider))
+        .when()
+            .post("/api/providers/bulk")
+        .then()
+            .statusCode(400);
+    }
+    
+    @Test
+    void testImportProvidersCsv() {
+        String csv = "npi,firstName,lastName,dateOfBirth\n"
+            + sampleProvider.npi + ",John,Smith,1980-05-15\n"
+            + "1234567890,Bad,Npi,1980-05-15\n";
+        
+        given()
+            .contentType("text/csv")
+            .body(csv)
+        .when()
+            .post("/api/providers/import")
+        .then()
+            .statusCode(200)
+            .body("totalRows", equalTo(2))
+            .body("imported", equalTo(1))
+            .body("failed", equalTo(1))
+            .body("errors[0].row", equalTo(2));
+        
+        given()
+        .when()
+            .get("/api/providers/npi/" + sampleProvider.npi)
+        .then()
+            .statusCode(200);
+    }
+    
     @Test
     void testGetAllProviders() {
         // Create a provider first
@@ -118,6 +168,90 @@ public class ProviderResourceTest {
             .body("firstName", equalTo(sampleProvider.firstName));
     }
     
+    @Test
+    void testGetProviderViews() {
+        ProviderDto createdProvider = given()
+            .contentType(ContentType.JSON)
+            .body(sampleProvider)
+        .when()
+            .post("/api/providers")
+        .then()
+            .statusCode(201)
+            .extract().as(ProviderDto.class);
+
+        given()
+            .queryParam("view", "summary")
+        .when()
+            .get("/api/providers/" + createdProvider.id)
+        .then()
+            .statusCode(200)
+            .body("npi", equalTo(sampleProvider.npi))
+            .body("verificationStatus", equalTo("PENDING"))
+            .body("$", not(hasKey("licenses")))
+            .body("$", not(hasKey("ruleEvaluations")));
+
+        given()
+        .when()
+            .get("/api/providers/" + createdProvider.id)
+        .then()
+            .statusCode(200)
+            .body("licenses", notNullValue())
+            .body("$", not(hasKey("ruleEvaluations")));
+
+        given()
+            .queryParam("view", "full")
+        .when()
+            .get("/api/providers/npi/" + sampleProvider.npi)
+        .then()
+            .statusCode(200)
+            .body("ruleEvaluations", notNullValue());
+
+        given()
+            .queryParam("view", "summary")
+        .when()
+            .get("/api/providers/status/PENDING")
+        .then()
+            .statusCode(200)
+            .body("npi", hasItem(sampleProvider.npi));
+
+        given()
+            .queryParam("view", "everything")
+        .when()
+            .get("/api/providers/" + createdProvider.id)
+        .then()
+            .statusCode(400);
+    }
+
+    @Test
+    void testGetRuleEvaluationHistory() {
+        ProviderDto createdProvider = given()
+            .contentType(ContentType.JSON)
+            .body(sampleProvider)
+        .when()
+            .post("/api/providers")
+        .then()
+            .statusCode(201)
+            .extract().as(ProviderDto.class);
+
+        given()
+            .contentType(ContentType.JSON)
+        .when()
+            .post("/api/rules/evaluate/" + createdProvider.id)
+        .then()
+            .statusCode(200);
+
+        given()
+            .queryParam("page", 0)
+            .queryParam("size", 5)
+        .when()
+            .get("/api/providers/" + createdProvider.id + "/rule-evaluations")
+        .then()
+            .statusCode(200)
+            .body("total", greaterThan(0))
+            .body("evaluations.ruleName", hasItem("no-valid-license-rule"))
+            .body("size", equalTo(5));
+    }
+
     @Test
     void testGetProviderByNpi() {
         // Create a provider first
@@ -145,6 +279,89 @@ public class ProviderResourceTest {
             .statusCode(404);
     }
     
+    @Test
+    void testConditionalGetProvider() {
+        ProviderDto createdProvider = given()
+            .contentType(ContentType.JSON)
+            .body(sampleProvider)
+        .when()
+            .post("/api/providers")
+        .then()
+            .statusCode(201)
+            .extract().as(ProviderDto.class);
+        
+        io.restassured.response.Response first = given()
+        .when()
+            .get("/api/providers/" + createdProvider.id)
+        .then()
+            .statusCode(200)
+            .header("ETag", startsWith("W/\""))
+            .header("Last-Modified", notNullValue())
+            .header("Cache-Control", containsString("no-cache"))
+            .extract().response();
+        String etag = first.getHeader("ETag");
+        
+        // An unchanged provider is answered with 304 by tag, by date and by NPI
+        given()
+            .header("If-None-Match", etag)
+        .when()
+            .get("/api/providers/" + createdProvider.id)
+        .then()
+            .statusCode(304)
+            .header("ETag", equalTo(etag));
+        
+        given()
+            .header("If-Modified-Since", first.getHeader("Last-Modified"))
+        .when()
+            .get("/api/providers/" + createdProvider.id)
+        .then()
+            .statusCode(304);
+        
+        given()
+            .header("If-None-Match", etag)
+        .when()
+            .get("/api/providers/npi/" + sampleProvider.npi)
+        .then()
+            .statusCode(304);
+        
+        // Each view has its own tag
+        given()
+            .header("If-None-Match", etag)
+        .when()
+            .get("/api/providers/" + createdProvider.id + "?view=summary")
+        .then()
+            .statusCode(200)
+            .header("ETag", not(equalTo(etag)));
+        
+        // A change to the provider's locations alone still changes its tag
+        given()
+            .contentType("application/merge-patch+json")
+            .body("{\"practiceLocations\": [{\"name\": \"Main Clinic\", \"addressLine1\": \"100 Congress Ave\", \"city\": \"Austin\", \"state\": \"TX\", \"zipCode\": \"78701\", \"isPrimary\": true}]}")
+        .when()
+            .patch("/api/providers/" + createdProvider.id)
+        .then()
+            .statusCode(200);
+        
+        given()
+            .header("If-None-Match", etag)
+        .when()
+            .get("/api/providers/" + createdProvider.id)
+        .then()
+            .statusCode(200)
+            .header("ETag", not(equalTo(etag)))
+            .body("practiceLocations.size()", equalTo(1));
+    }
+    
+    @Test
+    void testConditionalGetProviderNotFound() {
+        given()
+            .header("If-None-Match", "W/\"1-0-standard\"")
+        .when()
+            .get("/api/providers/999999")
+        .then()
+            .statusCode(404);
+    }
+    
     @Test
     void testUpdateProvider() {
         // Create a provider first
@@ -219,6 +436,46 @@ public class ProviderResourceTest {
             .body("verificationStatus", everyItem(equalTo("PENDING")));
     }
     
+    @Test
+    void testPatchProvider() {
+        ProviderDto createdProvider = given()
+            .contentType(ContentType.JSON)
+            .body(sampleProvider)
+        .when()
+            .post("/api/providers")
+        .then()
+            .statusCode(201)
+            .extract().as(ProviderDto.class);
+
+        given()
+            .contentType("application/merge-patch+json")
+            .body("{\"email\": \"john.patched@example.com\", \"middleName\": null}")
+        .when()
+            .patch("/api/providers/" + createdProvider.id)
+        .then()
+            .statusCode(200)
+            .body("email", equalTo("john.patched@example.com"))
+            .body("middleName", nullValue())
+            .body("firstName", equalTo(sampleProvider.firstName))
+            .body("npi", equalTo(sampleProvider.npi));
+
+        given()
+            .contentType("application/merge-patch+json")
+            .body("{\"createdAt\": \"2020-01-01T00:00:00\"}")
+        .when()
+            .patch("/api/providers/" + createdProvider.id)
+        .then()
+            .statusCode(400);
+
+        given()
+            .contentType("application/merge-patch+json")
+            .body("{\"lastName\": \"Other\", \"version\": 99}")
+        .when()
+            .patch("/api/providers/" + createdProvider.id)
+        .then()
+            .statusCode(409);
+    }
+
     @Test
     void testNormalizeProvider() {
         // Create a provider first
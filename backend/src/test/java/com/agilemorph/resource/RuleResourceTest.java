@@ -1,5 +1,6 @@
 package com.agilemorph.resource;
 
+import com.agilemorph.TestProviders;
 import com.agilemorph.dto.ProviderDto;
 import com.agilemorph.dto.RuleEvaluationRequest;
 import com.agilemorph.dto.RuleEvaluationResponse;
@@ -42,7 +43,7 @@ public class RuleResourceTest {
     void setUp() {
         // Provider with expired license (should trigger license expiry rule)
         providerWithExpiredLicense = new ProviderDto();
-        providerWithExpiredLicense.npi = String.format("%010d", System.nanoTime() % 1_000_000_0000L);
+        providerWithExpiredLicense.npi = TestProviders.npi();
         providerWithExpiredLicense.firstName = "John";
         providerWithExpiredLicense.lastName = "Smith";
         providerWithExpiredLicense.dateOfBirth = LocalDate.of(1980, 5, 15);
@@ -63,7 +64,7 @@ public class RuleResourceTest {
         
         // Provider with valid license (should not trigger license expiry rule)
         providerWithValidLicense = new ProviderDto();
-        providerWithValidLicense.npi = "2345678901";
+        providerWithValidLicense.npi = "2345678900";
         providerWithValidLicense.firstName = "Jane";
         providerWithValidLicense.lastName = "Doe";
         providerWithValidLicense.dateOfBirth = LocalDate.of(1975, 8, 22);
@@ -74,7 +75,7 @@ public class RuleResourceTest {
         validLicense.state = "NY";
         validLicense.licenseType = "Medical Doctor";
         validLicense.issueDate = LocalDate.of(2015, 3, 1);
-        validLicense.expiryDate = LocalDate.of(2025, 3, 1); // Valid
+        validLicense.expiryDate = LocalDate.now().plusYears(1); // Valid
         validLicense.status = License.LicenseStatus.ACTIVE;
         validLicense.expired = false;
         validLicense.expiringSoon = false;
@@ -107,6 +108,42 @@ public class RuleResourceTest {
             .body("metadata.facts.ruleName", hasItem("license-expiry-rule"));
     }
     
+    @Test
+    void testEvaluateRulesCompactByDefault() {
+        RuleEvaluationRequest request = new RuleEvaluationRequest();
+        request.provider = providerWithExpiredLicense;
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+        .when()
+            .post("/api/rules/evaluate")
+        .then()
+            .statusCode(200)
+            .body("success", equalTo(true))
+            .body("metadata.rulesFired", greaterThan(0))
+            .body("metadata.facts", nullValue())
+            .body("metadata.trace", nullValue())
+            .body("results.ruleName", hasItem("license-expiry-rule"));
+    }
+
+    @Test
+    void testEvaluateRulesWithTrace() {
+        RuleEvaluationRequest request = new RuleEvaluationRequest();
+        request.provider = providerWithExpiredLicense;
+        request.includeTrace = true;
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+        .when()
+            .post("/api/rules/evaluate")
+        .then()
+            .statusCode(200)
+            .body("metadata.trace", hasItem("License Expiry Check"))
+            .body("metadata.facts", nullValue());
+    }
+
     @Test
     void testEvaluateRulesWithValidLicense() {
         RuleEvaluationRequest request = new RuleEvaluationRequest();
@@ -173,6 +210,28 @@ public class RuleResourceTest {
             .body("initialized", notNullValue());
     }
     
+    @Test
+    void testReadyOnceRulesAreLoaded() {
+        // An evaluation waits for the background build, so the rules are loaded after it
+        RuleEvaluationRequest request = new RuleEvaluationRequest();
+        request.provider = providerWithValidLicense;
+        
+        given()
+            .contentType(ContentType.JSON)
+            .body(request)
+        .when()
+            .post("/api/rules/evaluate")
+        .then()
+            .statusCode(200);
+        
+        given()
+        .when()
+            .get("/q/health/ready")
+        .then()
+            .statusCode(200)
+            .body("checks.find { it.name == 'rule-engine' }.status", equalTo("UP"));
+    }
+    
     @Test
     void testEvaluateRulesWithInvalidRequest() {
         // Test with null provider
@@ -197,4 +256,52 @@ public class RuleResourceTest {
         .then()
             .statusCode(500); // Should return 500 due to exception in service
     }
+    
+    @Test
+    void testEvaluateAllProviders() {
+        int runId = given()
+            .contentType(ContentType.JSON)
+        .when()
+            .post("/api/rules/evaluate-all")
+        .then()
+            .statusCode(202)
+            .body("jobType", equalTo("RULE_EVALUATION"))
+            .body("total", notNullValue())
+            .extract().path("id");
+        
+        given()
+        .when()
+            .get("/api/rules/evaluation-runs/" + runId)
+        .then()
+            .statusCode(200)
+            .body("id", equalTo(runId));
+        
+        given()
+        .when()
+            .get("/api/rules/evaluation-runs/99999")
+        .then()
+            .statusCode(404);
+    }
+    
+    @Test
+    void testRosterCheckOfSubmittedProviders() {
+        given()
+            .contentType(ContentType.JSON)
+            .body(List.of(providerWithExpiredLicense, providerWithExpiredLicense))
+        .when()
+            .post("/api/rules/roster-check/providers")
+        .then()
+            .statusCode(200)
+            .body("providers", equalTo(2))
+            .body("matches.ruleName", hasItems("duplicate-npi-rule", "duplicate-provider-rule", "shared-license-rule"));
+        
+        given()
+            .contentType(ContentType.JSON)
+        .when()
+            .post("/api/rules/roster-check")
+        .then()
+            .statusCode(200)
+            .body("partitions", greaterThan(0))
+            .body("matches", notNullValue());
+    }
 }
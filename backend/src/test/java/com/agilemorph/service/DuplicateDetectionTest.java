@@ -1,5 +1,6 @@
 package com.agilemorph.service;
 
+import com.agilemorph.TestProviders;
 import com.agilemorph.dto.ProviderDto;
 import com.agilemorph.model.Provider;
 import io.quarkus.test.junit.QuarkusTest;
@@ -39,7 +40,7 @@ public class DuplicateDetectionTest {
     @BeforeEach
     void setUp() {
         baseProvider = new ProviderDto();
-        baseProvider.npi = String.format("%010d", System.nanoTime() % 1_000_000_0000L);
+        baseProvider.npi = TestProviders.npi();
         baseProvider.firstName = "John";
         baseProvider.lastName = "Smith";
         baseProvider.dateOfBirth = LocalDate.of(1980, 5, 15);
@@ -0,0 +1,158 @@
+package com.agilemorph.service;
+
+import com.agilemorph.TestProviders;
+import com.agilemorph.dto.BatchJobDto;
+import com.agilemorph.dto.ImportReportDto;
+import com.agilemorph.model.BatchJob;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class ImportJobServiceTest {
+
+    @Inject
+    ImportJobService importJobService;
+
+    @Inject
+    ProviderService providerService;
+
+    private static String row(String npi, String firstName) {
+        return npi + "," + firstName + ",Hopper,1980-01-01\n";
+    }
+
+    private BatchJobDto awaitJob(Long jobId) throws InterruptedException {
+        BatchJobDto job = importJobService.getJob(jobId);
+        for (int i = 0; i < 200 && job.status.isActive(); i++) {
+            Thread.sleep(50);
+            job = importJobService.getJob(jobId);
+        }
+        return job;
+    }
+
+    @Test
+    void testJobImportsRosterAndRecordsErrors() throws Exception {
+        String first = TestProviders.npi();
+        String second = TestProviders.npi();
+        String csv = "npi,firstName,lastName,dateOfBirth\n"
+            + row(first, "Grace")
+            + row("1234567890", "Bad")
+            + row(second, "Anita")
+            + "not-an-npi,Also,Bad,1980-01-01\n"
+            + row(TestProviders.npi(), "Barbara");
+
+        BatchJobDto job = importJobService.submitJob(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ProviderImportService.Format.CSV);
+        assertEquals(BatchJob.JobType.IMPORT, job.jobType);
+        assertEquals(5L, job.total);
+
+        job = awaitJob(job.id);
+        assertEquals(BatchJob.JobStatus.COMPLETED, job.status);
+        assertEquals(5, job.processed);
+        assertEquals(3, job.updated);
+        assertEquals(2, job.failed);
+        assertEquals(100.0, job.percentComplete);
+        assertNotNull(job.rowsPerSecond);
+
+        List<ImportReportDto.RowError> errors = importJobService.getJobErrors(job.id, 0, 10);
+        assertEquals(2, errors.size());
+        assertEquals(2, errors.get(0).row);
+        assertEquals(4, errors.get(1).row);
+        assertEquals("Anita", providerService.getProviderByNpi(second).firstName);
+    }
+
+    @Test
+    void testFailedJobResumesFromCheckpoint() throws Exception {
+        String done = TestProviders.npi();
+        String pending = TestProviders.npi();
+        Path source = Files.createTempFile("import-", ".csv");
+        Files.writeString(source, "npi,firstName,lastName,dateOfBirth\n"
+            + row(done, "Skipped") + row(TestProviders.npi(), "Skipped") + row(pending, "Resumed"));
+
+        // As left behind by a run that committed its first chunk and then died
+        Long jobId = QuarkusTransaction.requiringNew().call(() -> {
+            BatchJob job = new BatchJob();
+            job.jobType = BatchJob.JobType.IMPORT;
+            job.status = BatchJob.JobStatus.FAILED;
+            job.source = source.toString();
+            job.sourceFormat = ProviderImportService.Format.CSV.name();
+            job.total = 3L;
+            job.checkpoint = 2L;
+            job.processed = 2L;
+            job.updated = 2L;
+            job.persist();
+            return job.id;
+        });
+
+        BatchJobDto job = awaitJob(importJobService.resumeJob(jobId).id);
+
+        assertEquals(BatchJob.JobStatus.COMPLETED, job.status);
+        assertEquals(3, job.processed);
+        assertEquals(3, job.updated);
+        assertEquals("Resumed", providerService.getProviderByNpi(pending).firstName);
+        assertThrows(NotFoundException.class, () -> providerService.getProviderByNpi(done));
+        assertFalse(Files.exists(source));
+        assertThrows(IllegalStateException.class, () -> importJobService.resumeJob(jobId));
+    }
+
+    @Test
+    void testRunnerOnlyStartsAClaimedJob() throws Exception {
+        String npi = TestProviders.npi();
+        Path source = Files.createTempFile("import-", ".csv");
+        Files.writeString(source, "npi,firstName,lastName,dateOfBirth\n" + row(npi, "Twice"));
+        Long jobId = QuarkusTransaction.requiringNew().call(() -> {
+            BatchJob job = new BatchJob();
+            job.jobType = BatchJob.JobType.IMPORT;
+            job.status = BatchJob.JobStatus.FAILED;
+            job.source = source.toString();
+            job.sourceFormat = ProviderImportService.Format.CSV.name();
+            job.persist();
+            return job.id;
+        });
+
+        // A runner left over from an earlier submit finds the job not yet claimed
+        importJobService.run(jobId);
+        assertEquals(BatchJob.JobStatus.FAILED, importJobService.getJob(jobId).status);
+        assertThrows(NotFoundException.class, () -> providerService.getProviderByNpi(npi));
+
+        BatchJobDto job = awaitJob(importJobService.resumeJob(jobId).id);
+        assertEquals(BatchJob.JobStatus.COMPLETED, job.status);
+        assertEquals(1, job.updated);
+
+        // and once the job has run, a late runner does not import it again
+        importJobService.run(jobId);
+        assertEquals(1, importJobService.getJob(jobId).updated);
+        assertThrows(IllegalStateException.class, () -> importJobService.resumeJob(jobId));
+    }
+
+    @Test
+    void testCancelRunningJob() throws Exception {
+        StringBuilder csv = new StringBuilder("npi,firstName,lastName,dateOfBirth\n");
+        for (int i = 0; i < 2000; i++) {
+            csv.append(row(TestProviders.npi(), "Row" + i));
+        }
+
+        BatchJobDto job = importJobService.submitJob(
+            new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), ProviderImportService.Format.CSV);
+        Long jobId = job.id;
+        importJobService.cancelJob(jobId);
+        job = awaitJob(jobId);
+
+        assertEquals(BatchJob.JobStatus.CANCELLED, job.status);
+        assertTrue(job.processed < 2000);
+        assertEquals(job.processed, job.updated);
+        assertThrows(IllegalStateException.class, () -> importJobService.cancelJob(jobId));
+        assertThrows(NotFoundException.class, () -> importJobService.getJob(Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,155 @@
+package com.agilemorph.service;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * EXPLAIN-based regression tests for the PostgreSQL migrations: each query
+ * shape used by ProviderService and RuleEvaluationWriter must be planned on
+ * the index added for it.
+ *
+ * Runs against a scratch database that is cleaned and migrated, e.g.
+ * {@code mvn verify -DskipITs=false -Dagilemorph.it.postgres.url=jdbc:postgresql://localhost:5432/agilemorph_it}
+ * (user and password default to the application's). Skipped when no URL is given.
+ */
+public class IndexUsageIT {
+
+    private static Connection connection;
+    private static long busyProviderId;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        String url = System.getProperty("agilemorph.it.postgres.url", System.getenv("AGILEMORPH_IT_POSTGRES_URL"));
+        assumeTrue(url != null, "No PostgreSQL configured for index regression tests");
+        String user = System.getProperty("agilemorph.it.postgres.username", "agilemorph");
+        String password = System.getProperty("agilemorph.it.postgres.password", "agilemorph123");
+
+        Flyway flyway = Flyway.configure()
+            .dataSource(url, user, password)
+            .locations("classpath:db/migration/postgresql")
+            .cleanDisabled(false)
+            .load();
+        flyway.clean();
+        flyway.migrate();
+
+        connection = DriverManager.getConnection(url, user, password);
+        try (Statement statement = connection.createStatement()) {
+            // A realistic skew: most providers are verified, a small queue is pending
+            statement.execute("INSERT INTO providers (npi, first_name, last_name, date_of_birth, verification_status) "
+                + "SELECT 1000000000 + g, 'First' || g, 'Last' || (g % 5000), DATE '1950-01-01' + (g % 15000)::INT, "
+                + "CASE WHEN g % 50 = 0 THEN 'PENDING' ELSE 'VERIFIED' END "
+                + "FROM generate_series(1, 50000) g");
+            statement.execute("INSERT INTO licenses (provider_id, license_number, state, license_type, issue_date, expiry_date) "
+                + "SELECT p.id, 'MD' || p.id || '-' || n, 'CA', 'Medical Doctor', DATE '2015-01-01', DATE '2025-01-01' + (p.id % 1000 + n)::INT "
+                + "FROM providers p CROSS JOIN generate_series(1, 2) n");
+            statement.execute("INSERT INTO rule_evaluations (provider_id, rule_name, triggered, severity, evaluated_at) "
+                + "SELECT p.id, 'license-expiry-rule', n % 3 = 0, 'HIGH', TIMESTAMP '2024-01-01' + n * INTERVAL '1 day' "
+                + "FROM providers p CROSS JOIN generate_series(1, 10) n");
+            // One provider with a long history, where reading a page in index order matters
+            try (ResultSet resultSet = statement.executeQuery("SELECT MIN(id) FROM providers")) {
+                resultSet.next();
+                busyProviderId = resultSet.getLong(1);
+            }
+            statement.execute("INSERT INTO rule_evaluations (provider_id, rule_name, triggered, severity, evaluated_at) "
+                + "SELECT " + busyProviderId + ", 'license-expiry-rule', TRUE, 'HIGH', TIMESTAMP '2024-01-01' + n * INTERVAL '1 hour' "
+                + "FROM generate_series(1, 5000) n");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void testStatusListUsesStatusIdIndex() throws SQLException {
+        assertPlanUses("idx_providers_status_id",
+            "SELECT * FROM providers WHERE verification_status = 'PENDING' ORDER BY id");
+    }
+
+    @Test
+    void testDuplicateLookupUsesNameIndex() throws SQLException {
+        assertPlanUses("idx_providers_name_dob",
+            "SELECT * FROM providers WHERE LOWER(first_name) = 'first42' AND LOWER(last_name) = 'last42' "
+                + "AND date_of_birth = DATE '1950-02-12'");
+    }
+
+    @Test
+    void testNpiLookupUsesUniqueIndex() throws SQLException {
+        assertPlanUses("providers_npi_key", "SELECT * FROM providers WHERE npi = 1000000042");
+    }
+
+    @Test
+    void testLicensesByProviderUseProviderExpiryIndex() throws SQLException {
+        assertPlanUses("idx_licenses_provider_expiry",
+            "SELECT * FROM licenses WHERE provider_id = 42 ORDER BY expiry_date");
+    }
+
+    @Test
+    void testExpiryForecastUsesExpiryIndex() throws SQLException {
+        // The shape LicenseExpiryForecastService generates for horizons 7 and 30
+        assertPlanUses("idx_licenses_expiry_date",
+            "SELECT state, license_type, SUM(CASE WHEN expiry_date < DATE '2025-06-08' THEN 1 ELSE 0 END), "
+                + "SUM(CASE WHEN expiry_date < DATE '2025-07-01' THEN 1 ELSE 0 END) FROM licenses "
+                + "WHERE expiry_date >= DATE '2025-06-01' AND expiry_date < DATE '2025-07-01' "
+                + "GROUP BY state, license_type ORDER BY state, license_type");
+    }
+
+    @Test
+    void testHistoryPageUsesProviderEvaluatedIndex() throws SQLException {
+        String sql = "SELECT * FROM rule_evaluations WHERE provider_id = " + busyProviderId
+            + " ORDER BY evaluated_at DESC, id DESC LIMIT 20";
+        String plan = explain(sql);
+        assertTrue(plan.contains("Index Scan Backward using idx_rule_evaluations_provider_evaluated_id"),
+            "History page should be read in index order:\n" + plan);
+        assertFalse(plan.contains("Sort"), "History page should not be sorted:\n" + plan);
+    }
+
+    @Test
+    void testDroppedIndexesAreGone() throws SQLException {
+        List<String> indexes = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()")) {
+            while (resultSet.next()) {
+                indexes.add(resultSet.getString(1));
+            }
+        }
+        for (String dropped : List.of("idx_providers_npi", "idx_providers_verification_status", "idx_licenses_provider_id",
+                "idx_rule_evaluations_provider_id", "idx_rule_evaluations_rule_name", "idx_rule_evaluations_triggered",
+                "idx_audit_logs_timestamp")) {
+            assertFalse(indexes.contains(dropped), dropped + " should have been dropped");
+        }
+    }
+
+    private static void assertPlanUses(String index, String sql) throws SQLException {
+        String plan = explain(sql);
+        assertTrue(plan.contains(index), "Expected " + index + " in plan:\n" + plan);
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
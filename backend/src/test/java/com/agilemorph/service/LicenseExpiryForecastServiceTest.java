@@ -0,0 +1,98 @@
+package com.agilemorph.service;
+
+import com.agilemorph.TestProviders;
+import com.agilemorph.dto.LicenseExpiryForecastDto;
+import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.model.License;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class LicenseExpiryForecastServiceTest {
+
+    // Far enough ahead that licenses created by other tests have all expired
+    private static final LocalDate AS_OF = LocalDate.of(2090, 1, 1);
+
+    @Inject
+    LicenseExpiryForecastService licenseExpiryForecastService;
+
+    @Inject
+    ProviderService providerService;
+
+    @Test
+    void testForecastBucketsByStateAndType() {
+        createProvider(List.of(
+            license("ZZ", "Medical Doctor", AS_OF.minusDays(1)),   // already expired
+            license("ZZ", "Medical Doctor", AS_OF),                // expires today, within every horizon
+            license("ZZ", "Medical Doctor", AS_OF.plusDays(45)),
+            license("ZZ", "Nurse Practitioner", AS_OF.plusDays(89)),
+            license("ZY", "Medical Doctor", AS_OF.plusDays(90)),   // first day past the 90-day horizon
+            license("ZY", "Medical Doctor", AS_OF.plusDays(20))));
+
+        LicenseExpiryForecastDto forecast = licenseExpiryForecastService.getForecast(List.of(90, 30, 60), AS_OF);
+
+        assertEquals(AS_OF, forecast.asOf);
+        assertEquals(List.of(30, 60, 90), forecast.horizons);
+        assertEquals(3, forecast.buckets.size());
+
+        LicenseExpiryForecastDto.Bucket doctorsZz = bucket(forecast, "ZZ", "Medical Doctor");
+        assertEquals(1L, doctorsZz.expiringWithin.get(30));
+        assertEquals(2L, doctorsZz.expiringWithin.get(60));
+        assertEquals(2L, doctorsZz.expiringWithin.get(90));
+
+        LicenseExpiryForecastDto.Bucket nursesZz = bucket(forecast, "ZZ", "Nurse Practitioner");
+        assertEquals(0L, nursesZz.expiringWithin.get(60));
+        assertEquals(1L, nursesZz.expiringWithin.get(90));
+
+        LicenseExpiryForecastDto.Bucket doctorsZy = bucket(forecast, "ZY", "Medical Doctor");
+        assertEquals(1L, doctorsZy.expiringWithin.get(30));
+        assertEquals(1L, doctorsZy.expiringWithin.get(90));
+
+        assertEquals(2L, forecast.totals.get(30));
+        assertEquals(3L, forecast.totals.get(60));
+        assertEquals(4L, forecast.totals.get(90));
+    }
+
+    @Test
+    void testHorizonValidation() {
+        assertEquals(LicenseExpiryForecastService.DEFAULT_HORIZONS, LicenseExpiryForecastService.parseHorizons(null));
+        assertEquals(List.of(7, 14), LicenseExpiryForecastService.parseHorizons("7, 14"));
+        assertThrows(IllegalArgumentException.class, () -> LicenseExpiryForecastService.parseHorizons("30,soon"));
+        assertThrows(IllegalArgumentException.class, () -> licenseExpiryForecastService.getForecast(List.of(0), AS_OF));
+    }
+
+    private LicenseExpiryForecastDto.Bucket bucket(LicenseExpiryForecastDto forecast, String state, String licenseType) {
+        return forecast.buckets.stream()
+            .filter(bucket -> bucket.state.equals(state) && bucket.licenseType.equals(licenseType))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No bucket for " + state + " / " + licenseType));
+    }
+
+    private void createProvider(List<ProviderDto.LicenseDto> licenses) {
+        ProviderDto provider = new ProviderDto();
+        provider.npi = TestProviders.npi();
+        provider.firstName = "Fore";
+        provider.lastName = "Cast";
+        provider.dateOfBirth = LocalDate.of(1970, 1, 1);
+        provider.licenses = new ArrayList<>(licenses);
+        providerService.createProvider(provider);
+    }
+
+    private static ProviderDto.LicenseDto license(String state, String licenseType, LocalDate expiryDate) {
+        ProviderDto.LicenseDto license = new ProviderDto.LicenseDto();
+        license.licenseNumber = state + expiryDate;
+        license.state = state;
+        license.licenseType = licenseType;
+        license.issueDate = LocalDate.of(2080, 1, 1);
+        license.expiryDate = expiryDate;
+        license.status = License.LicenseStatus.ACTIVE;
+        return license;
+    }
+}
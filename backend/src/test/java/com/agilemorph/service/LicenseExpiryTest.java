@@ -29,6 +29,8 @@ public class LicenseExpiryTest {
     
     @Test
     void testLicenseExpiryCalculation() {
+        LocalDate asOf = LocalDate.of(2025, 3, 1);
+        
         // Create a license that should be expired
         License license = new License();
         license.licenseNumber = "MD123456";
@@ -38,7 +40,7 @@ public class LicenseExpiryTest {
         license.expiryDate = LocalDate.of(2020, 6, 1); // Expired 4 years ago
         
         // This test should pass - the license should be expired
-        assertTrue(license.isExpired(), "License should be expired as it expired in 2020");
+        assertTrue(license.isExpired(asOf), "License should be expired as it expired in 2020");
         
         // Test with a valid license
         License validLicense = new License();
@@ -49,21 +51,39 @@ public class LicenseExpiryTest {
         validLicense.expiryDate = LocalDate.of(2026, 3, 1); // Valid for 1 more year
         
         // This test should pass - the license should not be expired
-        assertFalse(validLicense.isExpired(), "License should not be expired as it's valid until 2025");
+        assertFalse(validLicense.isExpired(asOf), "License should not be expired as it's valid until 2026");
+    }
+    
+    @Test
+    void testLicenseExpiryAsOfDate() {
+        License license = new License();
+        license.licenseNumber = "MD567890";
+        license.state = "WA";
+        license.licenseType = "Medical Doctor";
+        license.issueDate = LocalDate.of(2020, 1, 1);
+        license.expiryDate = LocalDate.of(2030, 6, 1);
+        
+        assertFalse(license.isExpired(LocalDate.of(2030, 6, 1)), "License is valid on its expiry date");
+        assertTrue(license.isExpired(LocalDate.of(2030, 6, 2)));
+        assertTrue(license.isExpiringSoon(30, LocalDate.of(2030, 5, 22)));
+        assertFalse(license.isExpiringSoon(30, LocalDate.of(2030, 4, 1)));
+        assertEquals(10, license.getDaysUntilExpiry(LocalDate.of(2030, 5, 22)));
     }
     
     @Test
     void testLicenseExpiringSoon() {
+        LocalDate asOf = LocalDate.of(2025, 3, 1);
+        
         // Create a license expiring in 25 days
         License expiringLicense = new License();
         expiringLicense.licenseNumber = "MD345678";
         expiringLicense.state = "TX";
         expiringLicense.licenseType = "Medical Doctor";
         expiringLicense.issueDate = LocalDate.of(2020, 1, 1);
-        expiringLicense.expiryDate = LocalDate.now().plusDays(25); // Expiring in 25 days
+        expiringLicense.expiryDate = asOf.plusDays(25); // Expiring in 25 days
         
         // This test should pass - the license should be expiring soon
-        assertTrue(expiringLicense.isExpiringSoon(30), "License should be expiring soon");
+        assertTrue(expiringLicense.isExpiringSoon(30, asOf), "License should be expiring soon");
         
         // Test with a license expiring in 60 days
         License notExpiringLicense = new License();
@@ -71,24 +91,26 @@ public class LicenseExpiryTest {
         notExpiringLicense.state = "FL";
         notExpiringLicense.licenseType = "Medical Doctor";
         notExpiringLicense.issueDate = LocalDate.of(2020, 1, 1);
-        notExpiringLicense.expiryDate = LocalDate.now().plusDays(60); // Expiring in 60 days
+        notExpiringLicense.expiryDate = asOf.plusDays(60); // Expiring in 60 days
         
         // This test should pass - the license should not be expiring soon
-        assertFalse(notExpiringLicense.isExpiringSoon(30), "License should not be expiring soon");
+        assertFalse(notExpiringLicense.isExpiringSoon(30, asOf), "License should not be expiring soon");
     }
     
     @Test
     void testLicenseDaysUntilExpiry() {
+        LocalDate asOf = LocalDate.of(2025, 3, 1);
+        
         // Create a license expiring in 100 days
         License license = new License();
         license.licenseNumber = "MD567890";
         license.state = "CA";
         license.licenseType = "Medical Doctor";
         license.issueDate = LocalDate.of(2020, 1, 1);
-        license.expiryDate = LocalDate.now().plusDays(100);
+        license.expiryDate = asOf.plusDays(100);
         
         // This test should pass - the license should have 100 days until expiry
-        assertEquals(100, license.getDaysUntilExpiry(), "License should have 100 days until expiry");
+        assertEquals(100, license.getDaysUntilExpiry(asOf), "License should have 100 days until expiry");
         
         // Test with an expired license
         License expiredLicense = new License();
@@ -99,6 +121,6 @@ public class LicenseExpiryTest {
         expiredLicense.expiryDate = LocalDate.of(2020, 1, 1); // Expired 4 years ago
         
         // This test should pass - the expired license should have negative days
-        assertTrue(expiredLicense.getDaysUntilExpiry() < 0, "Expired license should have negative days until expiry");
+        assertTrue(expiredLicense.getDaysUntilExpiry(asOf) < 0, "Expired license should have negative days until expiry");
     }
 }
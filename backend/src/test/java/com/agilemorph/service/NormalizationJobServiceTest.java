@@ -0,0 +1,144 @@
+package com.agilemorph.service;
+
+import com.agilemorph.TestProviders;
+import com.agilemorph.dto.BatchJobDto;
+import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.model.BatchJob;
+import com.agilemorph.model.Provider;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class NormalizationJobServiceTest {
+
+    @Inject
+    NormalizationJobService normalizationJobService;
+
+    @Inject
+    ProviderService providerService;
+
+    @Test
+    void testNormalizerMatchesRegexBehaviour() {
+        assertEquals("John Paul", ProviderNormalizer.normalizeName("  John \t  Paul "));
+        assertEquals("", ProviderNormalizer.normalizeName("   "));
+        assertEquals("1234567890", ProviderNormalizer.normalizeNpi("123-456-7890"));
+        assertNull(ProviderNormalizer.normalizeNpi(null));
+
+        // Clean values come back as the same instance
+        String name = "Mary Ann";
+        String npi = "1234567893";
+        assertSame(name, ProviderNormalizer.normalizeName(name));
+        assertSame(npi, ProviderNormalizer.normalizeNpi(npi));
+    }
+
+    @Test
+    void testJobNormalizesEveryProvider() throws InterruptedException {
+        ProviderDto messy = createProvider("  Ada  ");
+        ProviderDto clean = createProvider("Grace");
+        createProvider("Alan");
+
+        BatchJobDto job = normalizationJobService.startJob();
+        assertEquals(BatchJob.JobStatus.RUNNING, job.status);
+
+        for (int i = 0; i < 100 && job.status == BatchJob.JobStatus.RUNNING; i++) {
+            Thread.sleep(100);
+            job = normalizationJobService.getJob(job.id);
+        }
+
+        assertEquals(BatchJob.JobStatus.COMPLETED, job.status);
+        assertEquals(job.total, job.processed);
+        assertTrue(job.updated >= 1);
+
+        ProviderDto normalized = providerService.getProvider(messy.id);
+        assertEquals("Ada", normalized.firstName);
+        assertEquals(messy.npi, normalized.npi);
+        assertTrue(normalized.version > messy.version);
+        assertEquals(clean.version, providerService.getProvider(clean.id).version);
+    }
+
+    @Test
+    void testConcurrentResumesStartOneRunner() throws InterruptedException {
+        Long jobId = createJob(BatchJob.JobStatus.FAILED);
+
+        assertEquals(BatchJob.JobStatus.RUNNING, normalizationJobService.resumeJob(jobId).status);
+        assertThrows(IllegalStateException.class, () -> normalizationJobService.resumeJob(jobId));
+
+        assertEquals(BatchJob.JobStatus.COMPLETED, awaitJob(jobId).status);
+    }
+
+    @Test
+    void testInterruptedJobResumesAtStartup() throws InterruptedException {
+        Long jobId = createJob(BatchJob.JobStatus.RUNNING);
+
+        normalizationJobService.onStart(null);
+
+        assertEquals(BatchJob.JobStatus.COMPLETED, awaitJob(jobId).status);
+        assertThrows(IllegalStateException.class, () -> normalizationJobService.resumeJob(jobId));
+    }
+
+    @Test
+    void testJobWithALiveHeartbeatIsLeftToItsInstance() throws InterruptedException {
+        Long jobId = createJob(BatchJob.JobStatus.RUNNING);
+        QuarkusTransaction.requiringNew().run(() ->
+            BatchJob.update("updatedAt = ?1 where id = ?2", LocalDateTime.now(), jobId));
+        try {
+            normalizationJobService.onStart(null);
+            Thread.sleep(500);
+
+            assertEquals(BatchJob.JobStatus.RUNNING, normalizationJobService.getJob(jobId).status);
+        } finally {
+            QuarkusTransaction.requiringNew().run(() ->
+                BatchJob.update("status = ?1 where id = ?2", BatchJob.JobStatus.CANCELLED, jobId));
+        }
+    }
+
+    @Test
+    void testProvidersThatCannotBeNormalizedAreCounted() throws InterruptedException {
+        ProviderDto blank = createProvider("Blank");
+        QuarkusTransaction.requiringNew().run(() -> Provider.getEntityManager()
+            .createNativeQuery("UPDATE providers SET first_name = '   ' WHERE id = ?1")
+            .setParameter(1, blank.id)
+            .executeUpdate());
+        try {
+            BatchJobDto job = awaitJob(normalizationJobService.startJob().id);
+
+            assertEquals(BatchJob.JobStatus.COMPLETED, job.status);
+            assertTrue(job.failed >= 1);
+            assertEquals("   ", QuarkusTransaction.requiringNew().call(
+                () -> Provider.<Provider>findById(blank.id).firstName));
+        } finally {
+            providerService.deleteProvider(blank.id);
+        }
+    }
+
+    /** A job with nothing left to do past its checkpoint. */
+    private Long createJob(BatchJob.JobStatus status) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            BatchJob job = new BatchJob();
+            job.jobType = BatchJob.JobType.NORMALIZATION;
+            job.status = status;
+            job.checkpoint = Long.MAX_VALUE;
+            job.persist();
+            return job.id;
+        });
+    }
+
+    private BatchJobDto awaitJob(Long jobId) throws InterruptedException {
+        BatchJobDto job = normalizationJobService.getJob(jobId);
+        for (int i = 0; i < 100 && job.status.isActive(); i++) {
+            Thread.sleep(100);
+            job = normalizationJobService.getJob(jobId);
+        }
+        return job;
+    }
+
+    private ProviderDto createProvider(String firstName) {
+        return providerService.createProvider(TestProviders.provider(firstName, "Lovelace"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.agilemorph.service;
+
+import com.agilemorph.TestProviders;
+import com.agilemorph.dto.ImportReportDto;
+import com.agilemorph.dto.ProviderDto;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class ProviderImportServiceTest {
+
+    @Inject
+    ProviderImportService providerImportService;
+
+    @Inject
+    ProviderService providerService;
+
+    private ImportReportDto importText(String text, ProviderImportService.Format format) throws IOException {
+        return providerImportService.importProviders(
+            new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), format);
+    }
+
+    @Test
+    void testCsvImportReportsRowErrors() throws IOException {
+        String first = TestProviders.npi();
+        String second = TestProviders.npi();
+        String third = TestProviders.npi();
+        String csv = "npi,firstName,lastName,middleName,dateOfBirth,specialty,verificationStatus\n"
+            + first + ",  Ada ,Lovelace,,1980-01-01,Cardiology,VERIFIED\n"
+            + "1234567890,Bad,Checkdigit,,1980-01-01,,\n"
+            + second + ",Grace,Hopper,,not-a-date,,\n"
+            + first.substring(0, 3) + "-" + first.substring(3) + ",Ada,Again,,1980-01-01,,\n"
+            + third + ",Alan,Turing,Mathison,1975-06-23,,\n";
+
+        ImportReportDto report = importText(csv, ProviderImportService.Format.CSV);
+
+        assertEquals(5, report.totalRows);
+        assertEquals(2, report.imported);
+        assertEquals(3, report.failed);
+        assertEquals(3, report.errors.size());
+        assertEquals(2, report.errors.get(0).row);
+        assertTrue(report.errors.get(0).error.contains("npi"));
+        assertEquals(3, report.errors.get(0).line);
+        assertEquals(3, report.errors.get(1).row);
+        assertEquals(4, report.errors.get(2).row);
+
+        ProviderDto imported = providerService.getProviderByNpi(first);
+        assertEquals("Ada", imported.firstName);
+        assertNull(imported.middleName);
+        assertEquals("Mathison", providerService.getProviderByNpi(third).middleName);
+    }
+
+    @Test
+    void testNdjsonImportWithLicensesAndExistingNpi() throws IOException {
+        String existing = TestProviders.npi();
+        String fresh = TestProviders.npi();
+        importText("{\"npi\":\"" + existing + "\",\"firstName\":\"Katherine\",\"lastName\":\"Johnson\",\"dateOfBirth\":\"1970-08-26\"}\n",
+            ProviderImportService.Format.NDJSON);
+
+        String ndjson = "{\"npi\":\"" + existing + "\",\"firstName\":\"Katherine\",\"lastName\":\"Johnson\",\"dateOfBirth\":\"1970-08-26\"}\n"
+            + "{\"npi\":\"" + fresh + "\",\"firstName\":\"Dorothy\",\"lastName\":\"Vaughan\",\"dateOfBirth\":\"1970-09-20\","
+            + "\"licenses\":[{\"licenseNumber\":\"MD900001\",\"state\":\"VA\",\"licenseType\":\"Medical Doctor\","
+            + "\"issueDate\":\"2020-01-01\",\"expiryDate\":\"2030-01-01\"}]}\n";
+
+        ImportReportDto report = importText(ndjson, ProviderImportService.Format.NDJSON);
+
+        assertEquals(2, report.totalRows);
+        assertEquals(1, report.imported);
+        assertEquals(1, report.failed);
+        assertEquals(existing, report.errors.get(0).npi);
+        assertEquals(1, providerService.getProviderByNpi(fresh).licenses.size());
+    }
+
+    @Test
+    void testUnsupportedMediaType() {
+        assertThrows(IllegalArgumentException.class,
+            () -> ProviderImportService.Format.fromMediaType("application/xml"));
+        assertEquals(ProviderImportService.Format.JSON,
+            ProviderImportService.Format.fromMediaType("application/json; charset=UTF-8"));
+    }
+}
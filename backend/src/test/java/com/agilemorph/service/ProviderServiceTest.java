@@ -1,7 +1,12 @@
 package com.agilemorph.service;
 
+import com.agilemorph.TestProviders;
 import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.dto.ProviderVersion;
+import com.agilemorph.dto.ProviderView;
+import com.agilemorph.model.AuditLog;
 import com.agilemorph.model.Provider;
+import io.quarkus.arc.ClientProxy;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -11,6 +16,9 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -36,7 +44,7 @@ public class ProviderServiceTest {
     @BeforeEach
     void setUp() {
         sampleProvider = new ProviderDto();
-        sampleProvider.npi = String.format("%010d", System.nanoTime() % 1_000_000_0000L);
+        sampleProvider.npi = TestProviders.npi();
         sampleProvider.firstName = "John";
         sampleProvider.lastName = "Smith";
         sampleProvider.middleName = "Michael";
@@ -60,6 +68,17 @@ public class ProviderServiceTest {
         assertEquals(sampleProvider.email, createdProvider.email);
     }
     
+    @Test
+    void testCreateProviderRejectsInvalidNpi() {
+        sampleProvider.npi = "1234567890";
+        assertThrows(IllegalArgumentException.class, () -> providerService.createProvider(sampleProvider));
+
+        // Rejected before the provider is even looked up
+        sampleProvider.npi = "123456789";
+        assertThrows(IllegalArgumentException.class,
+            () -> providerService.updateProvider(Long.MAX_VALUE, sampleProvider));
+    }
+    
     @Test
     void testGetProvider() {
         ProviderDto createdProvider = providerService.createProvider(sampleProvider);
@@ -80,6 +99,19 @@ public class ProviderServiceTest {
         assertEquals(createdProvider.npi, retrievedProvider.npi);
     }
     
+    @Test
+    void testGetProviderByNpiIgnoresSeparators() {
+        ProviderDto createdProvider = providerService.createProvider(sampleProvider);
+        String npi = createdProvider.npi;
+        
+        ProviderDto retrievedProvider = providerService.getProviderByNpi(
+            npi.substring(0, 3) + "-" + npi.substring(3, 6) + "-" + npi.substring(6));
+        
+        assertEquals(createdProvider.id, retrievedProvider.id);
+        assertEquals(npi, retrievedProvider.npi);
+        assertThrows(jakarta.ws.rs.NotFoundException.class, () -> providerService.getProviderByNpi("not-an-npi"));
+    }
+    
     @Test
     void testUpdateProvider() {
         ProviderDto createdProvider = providerService.createProvider(sampleProvider);
@@ -95,6 +127,107 @@ public class ProviderServiceTest {
         assertEquals("jane.doe@example.com", updatedProvider.email);
     }
     
+    @Test
+    void testReadOfANewerVersionDoesNotJoinAnOlderLoad() throws Exception {
+        ProviderDto createdProvider = providerService.createProvider(sampleProvider);
+        ProviderVersion before = providerService.getProviderVersion(createdProvider.id, ProviderView.STANDARD);
+        ProviderDto staleBody = providerService.getProvider(createdProvider.id, ProviderView.STANDARD, before);
+        
+        // A load for the old version that is still running when an update commits
+        ProviderService service = ClientProxy.unwrap(providerService);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ProviderDto> oldLoad = CompletableFuture.supplyAsync(() -> service.readsById.execute(
+            new ProviderService.ProviderRead(createdProvider.id, ProviderView.STANDARD, LocalDate.now(), before.etag),
+            () -> {
+                loading.countDown();
+                try {
+                    // Bounded, so a read that wrongly joins this load fails the test rather than hanging it
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return staleBody;
+            }));
+        try {
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            createdProvider.firstName = "Jane";
+            providerService.updateProvider(createdProvider.id, createdProvider);
+            
+            ProviderVersion after = providerService.getProviderVersion(createdProvider.id, ProviderView.STANDARD);
+            assertNotEquals(before.etag, after.etag);
+            ProviderDto body = providerService.getProvider(createdProvider.id, ProviderView.STANDARD, after);
+            assertEquals("Jane", body.firstName, "A body sent with the new tag came from a load of the old version");
+        } finally {
+            release.countDown();
+        }
+        assertSame(staleBody, oldLoad.get(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void testUpdateProviderReconcilesChildrenByNaturalKey() {
+        sampleProvider.licenses = List.of(
+            license("MD100001", "CA", LocalDate.of(2030, 1, 1)),
+            license("MD100002", "NY", LocalDate.of(2030, 1, 1)));
+        ProviderDto createdProvider = providerService.createProvider(sampleProvider);
+        Long keptLicenseId = createdProvider.licenses.stream()
+            .filter(l -> l.licenseNumber.equals("MD100001"))
+            .findFirst().orElseThrow().id;
+
+        // Renew the CA license, drop NY, add TX
+        createdProvider.licenses = List.of(
+            license("md100001", "ca", LocalDate.of(2032, 1, 1)),
+            license("MD100003", "TX", LocalDate.of(2031, 1, 1)));
+        ProviderDto updatedProvider = providerService.updateProvider(createdProvider.id, createdProvider);
+
+        assertEquals(2, updatedProvider.licenses.size());
+        ProviderDto.LicenseDto renewed = updatedProvider.licenses.stream()
+            .filter(l -> l.id.equals(keptLicenseId))
+            .findFirst().orElseThrow();
+        assertEquals(LocalDate.of(2032, 1, 1), renewed.expiryDate);
+        assertTrue(updatedProvider.licenses.stream().noneMatch(l -> l.licenseNumber.equals("MD100002")));
+        assertTrue(updatedProvider.licenses.stream().anyMatch(l -> l.licenseNumber.equals("MD100003")));
+    }
+
+    @Test
+    void testUpdateProviderRejectsStaleVersion() {
+        ProviderDto createdProvider = providerService.createProvider(sampleProvider);
+        ProviderDto renamed = providerService.getProvider(createdProvider.id);
+        renamed.phone = "555-987-6543";
+        ProviderDto updatedProvider = providerService.updateProvider(createdProvider.id, renamed);
+        assertTrue(updatedProvider.version > createdProvider.version);
+
+        // A second writer still holding the original version must not win
+        createdProvider.firstName = "Stale";
+        assertThrows(jakarta.persistence.OptimisticLockException.class,
+            () -> providerService.updateProvider(createdProvider.id, createdProvider));
+    }
+
+    @Test
+    void testUnchangedUpdateKeepsVersion() {
+        sampleProvider.licenses = List.of(license("MD100001", "CA", LocalDate.of(2030, 1, 1)));
+        ProviderDto createdProvider = providerService.createProvider(sampleProvider);
+
+        ProviderDto unchanged = providerService.updateProvider(createdProvider.id, createdProvider);
+        assertEquals(createdProvider.version, unchanged.version);
+        assertEquals(0, AuditLog.count("provider.id = ?1 and action = ?2", createdProvider.id, "PROVIDER_UPDATED"));
+
+        // A child-only change still moves the provider's version
+        createdProvider.licenses.get(0).expiryDate = LocalDate.of(2032, 1, 1);
+        ProviderDto renewed = providerService.updateProvider(createdProvider.id, createdProvider);
+        assertTrue(renewed.version > createdProvider.version);
+    }
+
+    private ProviderDto.LicenseDto license(String number, String state, LocalDate expiryDate) {
+        ProviderDto.LicenseDto license = new ProviderDto.LicenseDto();
+        license.licenseNumber = number;
+        license.state = state;
+        license.licenseType = "Medical Doctor";
+        license.issueDate = LocalDate.of(2020, 1, 1);
+        license.expiryDate = expiryDate;
+        return license;
+    }
+
     @Test
     void testDeleteProvider() {
         ProviderDto createdProvider = providerService.createProvider(sampleProvider);
@@ -121,6 +254,25 @@ public class ProviderServiceTest {
         assertEquals("1234567890", normalizedProvider.npi);
     }
     
+    @Test
+    void testNormalizeStoredProvider() {
+        Provider legacy = new Provider();
+        legacy.npi = "123-456-7893";
+        legacy.firstName = "  John   Paul ";
+        legacy.lastName = "Smith";
+        legacy.middleName = "Michael";
+        legacy.dateOfBirth = LocalDate.of(1980, 5, 15);
+        legacy.persist();
+
+        ProviderDto normalizedProvider = providerService.normalizeProvider(legacy.id);
+
+        assertEquals(legacy.id, normalizedProvider.id);
+        assertEquals("John Paul", normalizedProvider.firstName);
+        // NPIs are stored as numbers and always come back canonical
+        assertEquals("1234567893", normalizedProvider.npi);
+        assertEquals("Michael", normalizedProvider.middleName);
+    }
+    
     @Test
     void testFindPotentialDuplicates() {
         // Create first provider
@@ -0,0 +1,101 @@
+package com.agilemorph.service;
+
+import com.agilemorph.TestProviders;
+import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.dto.RosterCheckDto;
+import com.agilemorph.dto.RosterKey;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class RosterCheckServiceTest {
+
+    @Inject
+    RosterCheckService rosterCheckService;
+
+    @Inject
+    ProviderService providerService;
+
+    @Test
+    void testSubmittedRosterMatchesEachPairOnce() {
+        String npi = TestProviders.npi();
+        ProviderDto first = provider("Ann", "Lee", npi, "ZZ", "A-100");
+        ProviderDto second = provider("Ann", "Lee", npi.substring(0, 3) + "-" + npi.substring(3), "zz", "a100");
+        ProviderDto third = provider("Bo", "Kim", TestProviders.npi(), "ZZ", "B-200");
+        third.dateOfBirth = LocalDate.of(1990, 2, 2);
+        third.phone = "(555) 010-0001";
+        third.practiceLocations = List.of(location("1 Main St.", "99001"));
+        ProviderDto fourth = provider("Cy", "Park", TestProviders.npi(), "ZZ", "C-300");
+        fourth.dateOfBirth = LocalDate.of(1991, 3, 3);
+        fourth.phone = "555-010-0001";
+        fourth.practiceLocations = List.of(location("1 MAIN ST", "99001"), location("1 Main St", "99001"));
+
+        RosterCheckDto result = rosterCheckService.checkProviders(List.of(first, second, third, fourth));
+
+        assertEquals(4, result.providers);
+        assertEquals(4, result.partitions);
+        assertEquals(1, count(result, "duplicate-npi-rule"));
+        assertEquals(1, count(result, "duplicate-provider-rule"));
+        assertEquals(1, count(result, "shared-license-rule"));
+        assertEquals(1, count(result, "shared-contact-rule"));
+        assertEquals(4, result.matches.size());
+        RosterCheckDto.Match contact = result.matches.stream()
+            .filter(match -> match.kind == RosterKey.Kind.PHONE_AND_ADDRESS)
+            .findFirst().orElseThrow();
+        assertEquals(third.npi, contact.npi);
+        assertEquals(fourth.npi, contact.otherNpi);
+        assertTrue(result.largestPartition < 12, "Keys should be spread over partitions");
+    }
+
+    @Test
+    void testRosterOnFileFindsSharedLicense() {
+        String licenseNumber = "SHARED" + TestProviders.npi();
+        ProviderDto first = providerService.createProvider(
+            provider("Dee", "Holder", TestProviders.npi(), "ZY", licenseNumber));
+        ProviderDto second = provider("Eli", "Holder", TestProviders.npi(), "ZY", licenseNumber);
+        second.dateOfBirth = LocalDate.of(1970, 7, 7);
+        second = providerService.createProvider(second);
+
+        RosterCheckDto result = rosterCheckService.checkRoster();
+
+        Long firstId = first.id;
+        Long secondId = second.id;
+        assertTrue(result.matches.stream().anyMatch(match -> match.ruleName.equals("shared-license-rule")
+            && match.providerId.equals(firstId) && match.otherProviderId.equals(secondId)));
+        assertTrue(result.providers >= 2);
+    }
+
+    private static long count(RosterCheckDto result, String ruleName) {
+        return result.matches.stream().filter(match -> match.ruleName.equals(ruleName)).count();
+    }
+
+    private static ProviderDto provider(String firstName, String lastName, String npi, String state, String licenseNumber) {
+        ProviderDto provider = TestProviders.provider(firstName, lastName);
+        provider.npi = npi;
+        ProviderDto.LicenseDto license = new ProviderDto.LicenseDto();
+        license.licenseNumber = licenseNumber;
+        license.state = state;
+        license.licenseType = "Medical Doctor";
+        license.issueDate = LocalDate.of(2015, 1, 1);
+        license.expiryDate = LocalDate.now().plusYears(2);
+        provider.licenses = new ArrayList<>(List.of(license));
+        return provider;
+    }
+
+    private static ProviderDto.PracticeLocationDto location(String addressLine1, String zipCode) {
+        ProviderDto.PracticeLocationDto location = new ProviderDto.PracticeLocationDto();
+        location.name = "Clinic";
+        location.addressLine1 = addressLine1;
+        location.city = "Springfield";
+        location.state = "ZZ";
+        location.zipCode = zipCode;
+        return location;
+    }
+}
@@ -0,0 +1,123 @@
+package com.agilemorph.service;
+
+import com.agilemorph.TestProviders;
+import com.agilemorph.dto.BatchJobDto;
+import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.dto.RuleEvaluationResponse;
+import com.agilemorph.model.BatchJob;
+import com.agilemorph.model.Provider;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class RosterEvaluationServiceTest {
+
+    @Inject
+    RosterEvaluationService rosterEvaluationService;
+
+    @Inject
+    RuleEngineService ruleEngineService;
+
+    @Inject
+    ProviderService providerService;
+
+    @Test
+    void testPartitionCoversEveryProviderOnce() {
+        for (int i = 0; i < 5; i++) {
+            providerService.createProvider(provider("Range" + i, null));
+        }
+
+        List<RosterEvaluationService.Range> ranges = QuarkusTransaction.requiringNew().call(rosterEvaluationService::partition);
+        long total = QuarkusTransaction.requiringNew().call(() -> Provider.count());
+
+        assertEquals(total, ranges.stream().mapToLong(RosterEvaluationService.Range::size).sum());
+        for (int i = 1; i < ranges.size(); i++) {
+            assertTrue(ranges.get(i).fromId() > ranges.get(i - 1).toId());
+        }
+        assertTrue(ranges.stream().allMatch(range -> range.size() <= 2));
+    }
+
+    @Test
+    void testSessionIsClearedBetweenProviders() {
+        ProviderDto unlicensed = provider("Unlicensed", null);
+        unlicensed.id = -1L;
+        ProviderDto licensed = provider("Licensed", LocalDate.now().plusYears(2));
+        licensed.id = -2L;
+        licensed.licenses.get(0).expired = false;
+        licensed.licenses.get(0).expiringSoon = false;
+
+        Map<Long, RuleEvaluationResponse> responses =
+            ruleEngineService.evaluateProviders(List.of(unlicensed, licensed), LocalDateTime.now(), LocalDate.now());
+
+        assertTrue(responses.get(-1L).results.stream().anyMatch(r -> r.ruleName.equals("no-valid-license-rule")));
+        assertTrue(responses.get(-2L).results.isEmpty());
+    }
+
+    @Test
+    void testRunEvaluatesWholeRoster() throws InterruptedException {
+        ProviderDto expired = providerService.createProvider(provider("Expired", LocalDate.now().minusDays(10)));
+        ProviderDto unlicensed = providerService.createProvider(provider("Unlicensed", null));
+        providerService.createProvider(provider("Current", LocalDate.now().plusYears(2)));
+
+        BatchJobDto run = rosterEvaluationService.startRun();
+        assertEquals(BatchJob.JobType.RULE_EVALUATION, run.jobType);
+        for (int i = 0; i < 600 && run.status.isActive(); i++) {
+            Thread.sleep(50);
+            run = rosterEvaluationService.getRun(run.id);
+        }
+
+        assertEquals(BatchJob.JobStatus.COMPLETED, run.status);
+        assertEquals(run.total, run.processed);
+        assertEquals(0, run.failed);
+        assertNotNull(run.rowsPerSecond);
+        assertTrue(providerService.getProvider(expired.id).ruleEvaluations.stream()
+            .anyMatch(finding -> finding.ruleName.equals("license-expiry-rule")));
+        assertTrue(providerService.getProvider(unlicensed.id).ruleEvaluations.stream()
+            .anyMatch(finding -> finding.ruleName.equals("no-valid-license-rule")));
+    }
+
+    @Test
+    void testInterruptedRunFailsAtStartup() {
+        Long jobId = QuarkusTransaction.requiringNew().call(() -> {
+            BatchJob job = new BatchJob();
+            job.jobType = BatchJob.JobType.RULE_EVALUATION;
+            job.status = BatchJob.JobStatus.RUNNING;
+            job.total = 10L;
+            job.processed = 5L;
+            job.startedAt = LocalDateTime.now().minusMinutes(1);
+            job.persist();
+            return job.id;
+        });
+        assertNotNull(rosterEvaluationService.getRun(jobId).etaSeconds);
+
+        rosterEvaluationService.onStart(null);
+
+        BatchJobDto run = rosterEvaluationService.getRun(jobId);
+        assertEquals(BatchJob.JobStatus.FAILED, run.status);
+        assertNotNull(run.error);
+        assertNull(run.etaSeconds);
+    }
+
+    private ProviderDto provider(String firstName, LocalDate licenseExpiry) {
+        ProviderDto provider = TestProviders.provider(firstName, "Roster");
+        if (licenseExpiry != null) {
+            ProviderDto.LicenseDto license = new ProviderDto.LicenseDto();
+            license.licenseNumber = "MD" + TestProviders.npi();
+            license.state = "CA";
+            license.licenseType = "Medical Doctor";
+            license.issueDate = LocalDate.of(2015, 1, 1);
+            license.expiryDate = licenseExpiry;
+            provider.licenses = new java.util.ArrayList<>(List.of(license));
+        }
+        return provider;
+    }
+}
@@ -1,23 +1,47 @@
 package com.agilemorph.service;
 
+import com.agilemorph.TestProviders;
+import com.agilemorph.dto.LicensePolicy;
 import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.dto.ProviderView;
 import com.agilemorph.dto.RuleEvaluationRequest;
 import com.agilemorph.dto.RuleEvaluationResponse;
 import com.agilemorph.model.License;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.flywaydb.core.Flyway;
+import org.kie.api.KieServices;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.runtime.KieSession;
+import io.quarkus.arc.ClientProxy;
+import io.quarkus.test.junit.QuarkusMock;
 import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.faulttolerance.api.CircuitBreakerMaintenance;
+import io.smallrye.faulttolerance.api.CircuitBreakerState;
+import io.restassured.http.ContentType;
 import jakarta.inject.Inject;
 import jakarta.enterprise.inject.spi.CDI;
+import jakarta.transaction.Status;
+import jakarta.transaction.SystemException;
+import jakarta.transaction.TransactionManager;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.*;
 
 @QuarkusTest
@@ -29,10 +53,19 @@ public class RuleEngineServiceTest {
     
     @Inject
     ProviderService providerService;
+
+    @Inject
+    CircuitBreakerMaintenance circuitBreakerMaintenance;
+
+    @Inject
+    TransactionManager transactionManager;
     
     private ProviderDto providerWithExpiredLicense;
     private ProviderDto providerWithValidLicense;
 
+    @Inject
+    ObjectMapper objectMapper;
+
     @Inject
     Flyway flyway;
 
@@ -46,7 +79,7 @@ public class RuleEngineServiceTest {
     void setUp() {
         // Provider with expired license (should trigger license expiry rule)
         providerWithExpiredLicense = new ProviderDto();
-        providerWithExpiredLicense.npi = String.format("%010d", System.nanoTime() % 1_000_000_0000L);
+        providerWithExpiredLicense.npi = TestProviders.npi();
         providerWithExpiredLicense.firstName = "John";
         providerWithExpiredLicense.lastName = "Smith";
         providerWithExpiredLicense.dateOfBirth = LocalDate.of(1980, 5, 15);
@@ -67,7 +100,7 @@ public class RuleEngineServiceTest {
         
         // Provider with valid license (should not trigger license expiry rule)
         providerWithValidLicense = new ProviderDto();
-        providerWithValidLicense.npi = String.format("%010d", System.nanoTime() % 1_000_000_0000L);
+        providerWithValidLicense.npi = TestProviders.npi();
         providerWithValidLicense.firstName = "Jane";
         providerWithValidLicense.lastName = "Doe";
         providerWithValidLicense.dateOfBirth = LocalDate.of(1975, 8, 22);
@@ -78,7 +111,7 @@ public class RuleEngineServiceTest {
         validLicense.state = "NY";
         validLicense.licenseType = "Medical Doctor";
         validLicense.issueDate = LocalDate.of(2015, 3, 1);
-        validLicense.expiryDate = LocalDate.of(2025, 3, 1); // Valid
+        validLicense.expiryDate = LocalDate.now().plusYears(1); // Valid
         validLicense.status = License.LicenseStatus.ACTIVE;
         validLicense.expired = false;
         validLicense.expiringSoon = false;
@@ -159,6 +192,357 @@ public class RuleEngineServiceTest {
         assertTrue(licenseRuleTriggered, "License expiry rule should have been triggered for provider with expired license");
     }
     
+    @Test
+    void testRepeatedEvaluationUpsertsCurrentFindings() {
+        ProviderDto createdProvider = providerService.createProvider(providerWithExpiredLicense);
+
+        ruleEngineService.evaluateRulesForProvider(createdProvider.id);
+        ruleEngineService.evaluateRulesForProvider(createdProvider.id);
+
+        // Current state holds one finding per license, history keeps both runs
+        ProviderDto provider = providerService.getProvider(createdProvider.id);
+        long licenseFindings = provider.ruleEvaluations.stream()
+            .filter(evaluation -> evaluation.ruleName.equals("license-expiry-rule"))
+            .count();
+        assertEquals(1, licenseFindings);
+
+        List<ProviderDto.RuleEvaluationDto> history = providerService.getRuleEvaluationHistory(createdProvider.id, 0, 10);
+        assertEquals(2, history.stream()
+            .filter(evaluation -> evaluation.ruleName.equals("license-expiry-rule"))
+            .count());
+    }
+
+    @Test
+    void testEvaluateRulesForProviderAsOfLaterDate() {
+        ProviderDto.LicenseDto license = providerWithValidLicense.licenses.get(0);
+        license.expiryDate = LocalDate.now().plusDays(60);
+        ProviderDto createdProvider = providerService.createProvider(providerWithValidLicense);
+
+        LocalDate asOf = LocalDate.now().plusDays(90);
+        RuleEvaluationResponse response = ruleEngineService.evaluateRulesForProvider(createdProvider.id, asOf);
+
+        assertTrue(response.success);
+        assertEquals(asOf, response.asOf);
+        assertTrue(response.results.stream()
+            .anyMatch(result -> result.ruleName.equals("license-expiry-rule") && "HIGH".equals(result.severity)),
+            "License expiring before the as-of date should be reported as expired");
+
+        // A forecast leaves the provider's current findings alone
+        ProviderDto provider = providerService.getProvider(createdProvider.id);
+        assertTrue(provider.ruleEvaluations.stream()
+            .noneMatch(evaluation -> evaluation.ruleName.equals("license-expiry-rule")));
+    }
+
+    @Test
+    void testEvaluationReadsTheInjectedClock() {
+        providerWithValidLicense.licenses.get(0).expiryDate = LocalDate.of(2030, 6, 1);
+        ProviderDto createdProvider = providerService.createProvider(providerWithValidLicense);
+
+        QuarkusMock.installMockForType(
+            Clock.fixed(LocalDate.of(2030, 5, 22).atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()),
+            Clock.class);
+
+        ProviderDto provider = providerService.getProvider(createdProvider.id);
+        assertEquals(10, provider.licenses.get(0).daysUntilExpiry);
+        assertTrue(provider.licenses.get(0).expiringSoon);
+
+        RuleEvaluationResponse response = ruleEngineService.evaluateRulesForProvider(createdProvider.id);
+        assertEquals(LocalDate.of(2030, 5, 22), response.asOf);
+        assertTrue(response.results.stream()
+            .anyMatch(result -> result.ruleName.equals("license-expiry-rule") && "MEDIUM".equals(result.severity)));
+    }
+
+    @Test
+    void testRulesRunOutsideATransaction() {
+        ProviderDto createdProvider = providerService.createProvider(providerWithExpiredLicense);
+
+        // The evaluation reads the clock as it starts; record whether a transaction was open then
+        List<Integer> transactionStatuses = new ArrayList<>();
+        Clock systemClock = Clock.systemDefaultZone();
+        QuarkusMock.installMockForType(new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return systemClock.getZone();
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return systemClock.withZone(zone);
+            }
+
+            @Override
+            public Instant instant() {
+                try {
+                    transactionStatuses.add(transactionManager.getStatus());
+                } catch (SystemException e) {
+                    throw new IllegalStateException(e);
+                }
+                return systemClock.instant();
+            }
+        }, Clock.class);
+
+        RuleEvaluationResponse response = ruleEngineService.evaluateRulesForProvider(createdProvider.id);
+
+        assertTrue(response.success);
+        assertFalse(transactionStatuses.isEmpty());
+        assertTrue(transactionStatuses.stream().allMatch(status -> status == Status.STATUS_NO_TRANSACTION));
+        // Findings are still saved, in a transaction of their own afterwards
+        assertTrue(providerService.getProvider(createdProvider.id).ruleEvaluations.stream()
+            .anyMatch(finding -> finding.ruleName.equals("license-expiry-rule")));
+    }
+
+    @Test
+    void testMismatchedTaxonomyLocations() {
+        providerWithValidLicense.taxonomyCode = "207Q00000X";
+        providerWithValidLicense.practiceLocations = new ArrayList<>();
+        for (String taxonomy : List.of("207Q00000X", "207Q00000X", "208D00000X", "208600000X")) {
+            ProviderDto.PracticeLocationDto location = new ProviderDto.PracticeLocationDto();
+            location.name = "Clinic " + taxonomy;
+            location.taxonomyCode = taxonomy;
+            providerWithValidLicense.practiceLocations.add(location);
+        }
+
+        RuleEvaluationRequest request = new RuleEvaluationRequest();
+        request.provider = providerWithValidLicense;
+        RuleEvaluationResponse response = ruleEngineService.evaluateRules(request);
+
+        assertTrue(response.results.stream()
+            .anyMatch(result -> result.ruleName.equals("mismatched-taxonomy-rule")
+                && "Location Count: 4".equals(result.metadata)));
+        assertTrue(response.results.stream().noneMatch(result -> result.ruleName.equals("no-valid-license-rule")));
+
+        // One mismatched location is not enough
+        providerWithValidLicense.practiceLocations.get(3).taxonomyCode = "207Q00000X";
+        response = ruleEngineService.evaluateRules(request);
+        assertTrue(response.results.stream().noneMatch(result -> result.ruleName.equals("mismatched-taxonomy-rule")));
+    }
+
+    @Test
+    void testEvaluationLeavesTheSharedProviderUnchanged() throws Exception {
+        ProviderDto.PracticeLocationDto location = new ProviderDto.PracticeLocationDto();
+        location.name = "Main Clinic";
+        location.addressLine1 = "1 Main St";
+        location.city = "Albany";
+        location.state = "NY";
+        location.zipCode = "12207";
+        providerWithExpiredLicense.practiceLocations = List.of(location);
+        ProviderDto createdProvider = providerService.createProvider(providerWithExpiredLicense);
+
+        // The DTO a coalesced read hands to every caller, a concurrent GET included
+        ProviderDto provider = providerService.getProvider(createdProvider.id, ProviderView.STANDARD, LocalDate.now());
+        String before = objectMapper.writeValueAsString(provider);
+        List<ProviderDto.LicenseDto> licenses = provider.licenses;
+
+        RuleEvaluationRequest request = new RuleEvaluationRequest();
+        request.provider = provider;
+        RuleEvaluationResponse response = ruleEngineService.fireRules(request);
+
+        assertTrue(response.results.stream().anyMatch(result -> result.ruleName.equals("license-expiry-rule")));
+        assertEquals(before, objectMapper.writeValueAsString(provider));
+        assertSame(licenses, provider.licenses);
+    }
+
+    @Test
+    void testLicensePolicyTableRunsBeforeExpiryCheck() {
+        List<String> fired = new ArrayList<>();
+        KieSession kieSession = KieServices.Factory.get().getKieClasspathContainer().newKieSession();
+        try {
+            kieSession.addEventListener(new DefaultAgendaEventListener() {
+                @Override
+                public void afterMatchFired(AfterMatchFiredEvent event) {
+                    fired.add(event.getMatch().getRule().getName());
+                }
+            });
+            RuleEngineService.insertProvider(kieSession, providerWithExpiredLicense, LocalDate.now());
+            kieSession.fireAllRules();
+        } finally {
+            kieSession.dispose();
+        }
+
+        int check = fired.indexOf("License Expiry Check");
+        assertTrue(check >= 0, fired.toString());
+        assertEquals(1, fired.subList(0, check).stream().filter(rule -> rule.startsWith("Expiring Soon Window By State")).count(), fired.toString());
+        assertEquals(1, fired.subList(0, check).stream().filter(rule -> rule.startsWith("Expiry Severity By License Type")).count(), fired.toString());
+    }
+
+    @Test
+    void testFiringCapHaltsSession() {
+        KieSession kieSession = KieServices.Factory.get().getKieClasspathContainer().newKieSession();
+        try {
+            RuleEngineService.insertProvider(kieSession, providerWithExpiredLicense, LocalDate.now());
+
+            RuleEvaluationHaltedException e = assertThrows(RuleEvaluationHaltedException.class,
+                () -> RuleEngineService.fireAllRules(kieSession, Duration.ofMinutes(1), 1));
+            assertTrue(e.getMessage().contains("more than 1 rule firings"), e.getMessage());
+            // Halted after the second firing, before the expiry check
+            assertTrue(kieSession.getObjects(fact -> fact instanceof RuleEvaluationResponse.RuleResult).isEmpty());
+        } finally {
+            kieSession.dispose();
+        }
+    }
+
+    @Test
+    void testTimeBudgetHaltsSession() {
+        KieSession kieSession = KieServices.Factory.get().getKieClasspathContainer().newKieSession();
+        try {
+            RuleEngineService.insertProvider(kieSession, providerWithExpiredLicense, LocalDate.now());
+
+            RuleEvaluationHaltedException e = assertThrows(RuleEvaluationHaltedException.class,
+                () -> RuleEngineService.fireAllRules(kieSession, Duration.ZERO, 10_000));
+            assertTrue(e.getMessage().contains("over its 0 ms budget"), e.getMessage());
+        } finally {
+            kieSession.dispose();
+        }
+    }
+
+    @Test
+    void testEvaluationWithinLimitsFiresEveryRule() {
+        KieSession kieSession = KieServices.Factory.get().getKieClasspathContainer().newKieSession();
+        try {
+            RuleEngineService.insertProvider(kieSession, providerWithExpiredLicense, LocalDate.now());
+
+            // Both policy table rows, the expiry check and the duplicate name check
+            assertEquals(4, RuleEngineService.fireAllRules(kieSession, Duration.ofMinutes(1), 4));
+            assertTrue(kieSession.getAgendaEventListeners().isEmpty());
+        } finally {
+            kieSession.dispose();
+        }
+    }
+
+    @Test
+    void testRequestEvaluationsShareOneCircuitBreaker() {
+        RuleEvaluationRequest request = new RuleEvaluationRequest();
+        request.provider = providerWithValidLicense;
+        ruleEngineService.evaluateRules(request);
+
+        assertEquals(CircuitBreakerState.CLOSED,
+            circuitBreakerMaintenance.currentState(RuleEngineService.EVALUATION_CIRCUIT_BREAKER));
+    }
+
+    @Test
+    void testSlowEvaluationsOpenTheCircuitBreaker() {
+        RuleEvaluationRequest request = new RuleEvaluationRequest();
+        request.provider = providerWithValidLicense;
+        RuleEngineService engine = ClientProxy.unwrap(ruleEngineService);
+        Duration timeBudget = engine.timeBudget;
+        engine.timeBudget = Duration.ZERO;
+        // Forget the evaluations earlier tests ran through the breaker
+        circuitBreakerMaintenance.reset(RuleEngineService.EVALUATION_CIRCUIT_BREAKER);
+        try {
+            // Every evaluation runs over a zero budget; the breaker opens once it has seen 20
+            for (int i = 0; i < 19; i++) {
+                assertThrows(RuleEvaluationHaltedException.class, () -> ruleEngineService.evaluateRules(request));
+            }
+            assertEquals(CircuitBreakerState.CLOSED,
+                circuitBreakerMaintenance.currentState(RuleEngineService.EVALUATION_CIRCUIT_BREAKER));
+            assertThrows(RuleEvaluationHaltedException.class, () -> ruleEngineService.evaluateRules(request));
+            assertEquals(CircuitBreakerState.OPEN,
+                circuitBreakerMaintenance.currentState(RuleEngineService.EVALUATION_CIRCUIT_BREAKER));
+
+            // With the budget back, requests are still turned away until the breaker's delay passes
+            engine.timeBudget = timeBudget;
+            given()
+                .contentType(ContentType.JSON)
+                .body(request)
+            .when()
+                .post("/api/rules/evaluate")
+            .then()
+                .statusCode(503)
+                .header("Retry-After", "10")
+                .body("error", containsString("retry later"));
+        } finally {
+            engine.timeBudget = timeBudget;
+            circuitBreakerMaintenance.reset(RuleEngineService.EVALUATION_CIRCUIT_BREAKER);
+        }
+    }
+
+    @Test
+    void testLicenseOutsideThePolicyTableKeepsDefaults() {
+        ProviderDto.LicenseDto license = providerWithValidLicense.licenses.get(0);
+        license.state = "ZZ";
+        license.licenseType = "Nurse Practitioner";
+        license.expiryDate = LocalDate.now().plusDays(10);
+        license.expiringSoon = true;
+        license.daysUntilExpiry = 10;
+
+        RuleEvaluationRequest request = new RuleEvaluationRequest();
+        request.provider = providerWithValidLicense;
+        RuleEvaluationResponse response = ruleEngineService.evaluateRules(request);
+
+        assertTrue(response.results.stream()
+            .anyMatch(result -> result.ruleName.equals("license-expiry-rule") && "MEDIUM".equals(result.severity)));
+    }
+
+    @Test
+    void testSubmittedFlagsAreRecomputedFromTheExpiryDate() {
+        // The client's flags and days say valid; the expiry date says otherwise
+        ProviderDto.LicenseDto license = providerWithValidLicense.licenses.get(0);
+        license.expiryDate = LocalDate.now().minusDays(3);
+
+        RuleEvaluationRequest request = new RuleEvaluationRequest();
+        request.provider = providerWithValidLicense;
+        RuleEvaluationResponse response = ruleEngineService.evaluateRules(request);
+
+        assertTrue(response.results.stream()
+            .anyMatch(result -> result.ruleName.equals("license-expiry-rule") && "HIGH".equals(result.severity)));
+        assertTrue(license.expired);
+        assertEquals(-3, license.daysUntilExpiry);
+    }
+
+    @Test
+    void testSubmittedLicenseWithoutDaysIsNotExpiringSoon() {
+        // Ad-hoc payloads rarely send daysUntilExpiry, which then reads as 0
+        ProviderDto.LicenseDto license = providerWithValidLicense.licenses.get(0);
+        license.expiryDate = LocalDate.now().plusDays(200);
+        license.daysUntilExpiry = 0;
+
+        RuleEvaluationRequest request = new RuleEvaluationRequest();
+        request.provider = providerWithValidLicense;
+        RuleEvaluationResponse response = ruleEngineService.evaluateRules(request);
+
+        assertTrue(response.results.stream().noneMatch(result -> result.ruleName.equals("license-expiry-rule")));
+    }
+
+    @Test
+    void testStoredFlagsUseThePolicyTableWindow() {
+        ProviderDto.LicenseDto license = providerWithValidLicense.licenses.get(0);
+        int window = ruleEngineService.expiringSoonDays(license.state);
+        license.expiryDate = LocalDate.now().plusDays(window - 1);
+        ProviderDto createdProvider = providerService.createProvider(providerWithValidLicense);
+
+        assertTrue(providerService.getProvider(createdProvider.id).licenses.get(0).expiringSoon);
+        RuleEvaluationResponse response = ruleEngineService.evaluateRulesForProvider(createdProvider.id);
+        assertTrue(response.results.stream()
+            .anyMatch(result -> result.ruleName.equals("license-expiry-rule") && "MEDIUM".equals(result.severity)));
+    }
+
+    @Test
+    void testPolicyWindowsAreResolvedWithTheKieBase() throws Exception {
+        assertEquals(Set.of("CA", "FL", "NY", "TX"), RuleEngineService.policyTableStates());
+        ruleEngineService.initializeRuleEngine();
+
+        assertEquals(30, ruleEngineService.expiringSoonDays("CA"));
+        // States the table does not list, however many, keep the default without firing rules
+        assertEquals(LicensePolicy.DEFAULT_EXPIRING_SOON_DAYS, ruleEngineService.expiringSoonDays("ZZ"));
+        assertEquals(LicensePolicy.DEFAULT_EXPIRING_SOON_DAYS, ruleEngineService.expiringSoonDays(null));
+    }
+
+    @Test
+    void testPolicyWindowIsComputedFromTheExpiryDate() {
+        ProviderDto.LicenseDto license = new ProviderDto.LicenseDto();
+        license.state = "CA";
+        license.expiryDate = LocalDate.of(2025, 5, 30);
+        LicensePolicy policy = new LicensePolicy(providerWithValidLicense, license, LocalDate.of(2025, 3, 1));
+
+        assertEquals(90, policy.getDaysUntilExpiry());
+        assertFalse(policy.isExpiringSoon());
+        policy.setExpiringSoonDays(60);
+        assertFalse(policy.isExpiringSoon());
+        policy.setExpiringSoonDays(91);
+        assertTrue(policy.isExpiringSoon());
+        assertFalse(policy.isExpired());
+    }
+
     @Test
     void testRuleEngineStatus() {
         // Obtain a CDI-managed instance of RuleEngineService
@@ -185,6 +569,7 @@ public class RuleEngineServiceTest {
         assertNotNull(rules);
         assertFalse(rules.isEmpty());
         assertTrue(rules.contains("license-expiry-rule"));
+        assertTrue(rules.contains("license-expiry-policy"));
         assertTrue(rules.contains("duplicate-detection-rule"));
     }
 }
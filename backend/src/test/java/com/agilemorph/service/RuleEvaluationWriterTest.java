@@ -0,0 +1,87 @@
+package com.agilemorph.service;
+
+import com.agilemorph.TestProviders;
+import com.agilemorph.dto.ProviderDto;
+import com.agilemorph.dto.RuleEvaluationResponse;
+import com.agilemorph.model.RuleEvaluation;
+import io.quarkus.arc.ClientProxy;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class RuleEvaluationWriterTest {
+
+    @Inject
+    RuleEvaluationWriter ruleEvaluationWriter;
+
+    @Inject
+    ProviderService providerService;
+
+    private ProviderDto createProvider(String firstName) {
+        return providerService.createProvider(TestProviders.provider(firstName, "Writer"));
+    }
+
+    private RuleEvaluationResponse responseWith(String... messages) {
+        RuleEvaluationResponse response = new RuleEvaluationResponse();
+        response.success = true;
+        response.evaluatedAt = LocalDateTime.now();
+        response.results = new ArrayList<>();
+        for (String message : messages) {
+            RuleEvaluationResponse.RuleResult result = new RuleEvaluationResponse.RuleResult();
+            result.ruleName = "license-expiry-rule";
+            result.triggered = true;
+            result.severity = "HIGH";
+            result.message = message;
+            result.facts = List.of("fact for " + message);
+            response.results.add(result);
+        }
+        return response;
+    }
+
+    @Test
+    void testWriteBatchPersistsEveryResult() {
+        ProviderDto first = createProvider("Alpha");
+        ProviderDto second = createProvider("Beta");
+
+        Map<Long, RuleEvaluationResponse> responses = new LinkedHashMap<>();
+        responses.put(first.id, responseWith("expired A", "expired B"));
+        responses.put(second.id, responseWith("expired C"));
+
+        int written = ruleEvaluationWriter.writeBatch(responses);
+
+        assertEquals(3, written);
+        assertEquals(2, RuleEvaluation.count("provider.id", first.id));
+        assertEquals(1, RuleEvaluation.count("provider.id", second.id));
+    }
+
+    @Test
+    void testSkipUnchangedComparesWithCurrentFindings() {
+        ProviderDto provider = createProvider("Gamma");
+        RuleEvaluationWriter writer = ClientProxy.unwrap(ruleEvaluationWriter);
+        writer.skipUnchanged = true;
+        try {
+            assertEquals(1, writer.write(provider.id, LocalDateTime.now(), responseWith("expired A").results));
+            assertEquals(0, writer.write(provider.id, LocalDateTime.now(), responseWith("expired A").results));
+            // A finding that clears and comes back is recorded again
+            assertEquals(0, writer.write(provider.id, LocalDateTime.now(), List.of()));
+            assertEquals(1, writer.write(provider.id, LocalDateTime.now(), responseWith("expired A").results));
+        } finally {
+            writer.skipUnchanged = false;
+        }
+        assertEquals(2, RuleEvaluation.count("provider.id", provider.id));
+    }
+
+    @Test
+    void testWriteIgnoresUnsavedProvider() {
+        assertEquals(0, ruleEvaluationWriter.write(null, LocalDateTime.now(), responseWith("x").results));
+    }
+}
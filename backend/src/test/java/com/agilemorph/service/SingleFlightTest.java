@@ -0,0 +1,117 @@
+package com.agilemorph.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, Object> flight = new SingleFlight<>("test", registry);
+
+    @Test
+    void testConcurrentCallsShareOneResult() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> flight.execute(1L, () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return new Object();
+                })));
+            }
+            // Hold the first call until the other three have joined it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (count("coalesced") < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            Object first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<Object> result : results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+            assertEquals(1, count("executed"));
+            assertEquals(3, count("coalesced"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testJoinedCallsGetTheSameException() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> leader = executor.submit(() -> flight.execute(1L, () -> {
+                started.countDown();
+                await(release);
+                throw new NotFoundException("Provider not found with id: 1");
+            }));
+            await(started);
+            // Fail the first call only once this thread's call has joined it
+            Thread releaser = new Thread(() -> {
+                try {
+                    while (count("coalesced") < 1) {
+                        Thread.sleep(5);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                release.countDown();
+            });
+            releaser.start();
+
+            NotFoundException e = assertThrows(NotFoundException.class, () -> flight.execute(1L, Object::new));
+            assertEquals("Provider not found with id: 1", e.getMessage());
+            assertThrows(Exception.class, () -> leader.get(10, TimeUnit.SECONDS));
+            assertEquals(1, count("coalesced"));
+            releaser.join();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testNothingIsKeptOnceACallReturns() {
+        Object first = flight.execute(1L, Object::new);
+        Object second = flight.execute(1L, Object::new);
+        Object other = flight.execute(2L, Object::new);
+
+        assertNotSame(first, second);
+        assertNotSame(second, other);
+        assertEquals(3, count("executed"));
+        assertEquals(0, count("coalesced"));
+    }
+
+    private double count(String outcome) {
+        return registry.get("agilemorph.single.flight.calls").tag("flight", "test").tag("outcome", outcome)
+            .counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.agilemorph.validation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NpiTest {
+
+    @Test
+    void testValidNpis() {
+        assertTrue(Npi.isValid("1234567893"));
+        assertTrue(Npi.isValid("123-456-7893"));
+        assertTrue(Npi.isValid("123 456 7893"));
+        assertEquals(1234567893L, Npi.parse("1234567893"));
+    }
+
+    @Test
+    void testInvalidNpis() {
+        assertFalse(Npi.isValid(null));
+        assertFalse(Npi.isValid(""));
+        assertFalse(Npi.isValid("1234567890"), "check digit mismatch");
+        assertFalse(Npi.isValid("123456789"), "too short");
+        assertFalse(Npi.isValid("12345678930"), "too long");
+        assertFalse(Npi.isValid("12345678A3"), "non-digit");
+        assertEquals(-1, Npi.parse("1234567890"));
+    }
+
+    @Test
+    void testCheckDigit() {
+        assertEquals(3, Npi.checkDigit(123456789L));
+        assertEquals("1234567893", Npi.withCheckDigit(123456789L));
+        assertEquals("0000000014", Npi.withCheckDigit(1L));
+        assertTrue(Npi.isValid(Npi.withCheckDigit(987654321L)));
+    }
+}
@@ -0,0 +1,34 @@
+-- Compares index size and point lookup cost for the NPI column before and after V6.
+-- Run against a scratch PostgreSQL database: psql -f npi-index-size.sql
+\timing on
+
+DROP TABLE IF EXISTS npi_before, npi_after;
+
+-- Before V6: VARCHAR(10) with a UNIQUE constraint and the redundant idx_providers_npi
+CREATE TABLE npi_before (id BIGINT PRIMARY KEY, npi VARCHAR(10) UNIQUE NOT NULL);
+CREATE INDEX npi_before_npi_idx ON npi_before(npi);
+
+-- After V6: BIGINT with a single unique index
+CREATE TABLE npi_after (id BIGINT PRIMARY KEY, npi BIGINT UNIQUE NOT NULL);
+
+INSERT INTO npi_before SELECT g, lpad((1000000000 + g * 7)::TEXT, 10, '0') FROM generate_series(1, 1000000) g;
+INSERT INTO npi_after SELECT g, 1000000000 + g * 7 FROM generate_series(1, 1000000) g;
+VACUUM ANALYZE npi_before;
+VACUUM ANALYZE npi_after;
+
+SELECT c.relname AS index_name, pg_size_pretty(pg_relation_size(c.oid)) AS size
+FROM pg_index i
+JOIN pg_class c ON c.oid = i.indexrelid
+WHERE i.indrelid IN ('npi_before'::regclass, 'npi_after'::regclass)
+  AND NOT i.indisprimary
+ORDER BY c.relname;
+
+SELECT pg_size_pretty(SUM(pg_relation_size(i.indexrelid))) AS npi_index_total_before
+FROM pg_index i WHERE i.indrelid = 'npi_before'::regclass AND NOT i.indisprimary;
+SELECT pg_size_pretty(SUM(pg_relation_size(i.indexrelid))) AS npi_index_total_after
+FROM pg_index i WHERE i.indrelid = 'npi_after'::regclass AND NOT i.indisprimary;
+
+EXPLAIN (ANALYZE, BUFFERS) SELECT id FROM npi_before WHERE npi = '1003500000';
+EXPLAIN (ANALYZE, BUFFERS) SELECT id FROM npi_after WHERE npi = 1003500000;
+
+DROP TABLE npi_before, npi_after;